@@ -0,0 +1,200 @@
+package com.github.skySpiral7.java.dataStructures;
+
+/**
+ * <p>A Bloom filter that owns its hashing and storage so that add and mightContain don't allocate anything.
+ * The bits are a long[] split into blocks of 512 bits (64 bytes which is a cache line) and every bit of an element
+ * is in the same block. Therefore each call reads or writes a single cache line instead of k random ones.</p>
+ *
+ * <p>The size and number of hashes are calculated from the expected number of insertions and the desired false
+ * positive rate. Keeping the bits in blocks makes the actual false positive rate slightly higher than the
+ * desired rate (more so for a desired rate below 0.1%).
+ * The k bit positions are made by double hashing a single 64 bit hash.</p>
+ *
+ * <p>This class is not thread safe: use {@link ConcurrentBloomFilter} when there are multiple writers.</p>
+ *
+ * @see BloomFilter BloomFilter for a user defined hash.
+ */
+public final class BlockedBloomFilter
+{
+   /**
+    * 64 bytes per block
+    */
+   static final int LONGS_PER_BLOCK = 8;
+   static final int BITS_PER_BLOCK = LONGS_PER_BLOCK * Long.SIZE;
+   /**
+    * More hashes than this in a single block have almost no effect (other than making each call slower).
+    */
+   static final int MAX_HASHES = 16;
+   /**
+    * The number of blocks is limited by the maximum array size.
+    */
+   static final int MAX_BLOCKS = (Integer.MAX_VALUE - 8) / LONGS_PER_BLOCK;
+
+   private final long[] bits;
+   private final int blockCount;
+   private final int numberOfHashes;
+
+   /**
+    * @param expectedInsertions the number of elements that will be added. Adding more will raise the false positive rate.
+    * @param falsePositiveRate  the desired chance that mightContain returns true for an element that wasn't added.
+    *                           Must be greater than 0 and less than 1.
+    *
+    * @throws IllegalArgumentException if the filter would need more than 2^31 longs
+    */
+   public BlockedBloomFilter(final long expectedInsertions, final double falsePositiveRate)
+   {
+      blockCount = blockCountFor(expectedInsertions, falsePositiveRate);
+      numberOfHashes = hashCountFor(falsePositiveRate);
+      bits = new long[blockCount * LONGS_PER_BLOCK];
+   }
+
+   /**
+    * Adds the hash to this filter. The hash doesn't need to be well distributed (it is mixed before use)
+    * but it should be unique for each element.
+    *
+    * @see #hash(Object)
+    */
+   public void add(final long hash)
+   {
+      final long mixed = mix(hash);
+      final int blockStart = blockStart(mixed, blockCount);
+      final int hash1 = (int) mixed;
+      final int hash2 = secondHash(mixed);
+      for (int i = 0; i < numberOfHashes; i++)
+      {
+         final int bit = bitInBlock(hash1, hash2, i);
+         bits[blockStart + (bit >>> 6)] |= (1L << bit);
+      }
+   }
+
+   /**
+    * @return true if the hash might have been added or false if the hash definitely hasn't been
+    */
+   public boolean mightContain(final long hash)
+   {
+      final long mixed = mix(hash);
+      final int blockStart = blockStart(mixed, blockCount);
+      final int hash1 = (int) mixed;
+      final int hash2 = secondHash(mixed);
+      for (int i = 0; i < numberOfHashes; i++)
+      {
+         final int bit = bitInBlock(hash1, hash2, i);
+         if ((bits[blockStart + (bit >>> 6)] & (1L << bit)) == 0) return false;
+      }
+      return true;
+   }
+
+   /**
+    * The same as add(hash(element)).
+    */
+   public void add(final Object element){add(hash(element));}
+
+   /**
+    * The same as mightContain(hash(element)).
+    */
+   public boolean mightContain(final Object element){return mightContain(hash(element));}
+
+   /**
+    * @return the size of the filter in bits (a multiple of 512)
+    */
+   public long getNumberOfBits(){return (long) bits.length * Long.SIZE;}
+
+   /**
+    * @return the number of bits set for each element
+    */
+   public int getNumberOfHashes(){return numberOfHashes;}
+
+   /**
+    * <p>The built in hash used by add(Object) and mightContain(Object). A CharSequence is hashed by its chars
+    * (into 64 bits), a Long is its value, and anything else uses hashCode.</p>
+    *
+    * <p>Note that hashCode has only 32 bits which means that a filter with many more than 2^16 elements (that aren't
+    * CharSequence or Long) will have collisions. Hash those yourself (into a long) and call add(long) instead.</p>
+    */
+   public static long hash(final Object element)
+   {
+      if (element instanceof CharSequence) return hash((CharSequence) element);
+      if (element instanceof Long) return (Long) element;
+      return element.hashCode();
+   }
+
+   /**
+    * FNV-1a of each char. The result is mixed by add and mightContain.
+    */
+   public static long hash(final CharSequence element)
+   {
+      long result = 0xcbf29ce484222325L;
+      for (int i = 0; i < element.length(); i++)
+      {
+         result ^= element.charAt(i);
+         result *= 0x100000001b3L;
+      }
+      return result;
+   }
+
+   /**
+    * @return the number of blocks needed for the desired false positive rate
+    */
+   static int blockCountFor(final long expectedInsertions, final double falsePositiveRate)
+   {
+      if (expectedInsertions <= 0) throw new IllegalArgumentException("expectedInsertions must be positive: " + expectedInsertions);
+      if (!(falsePositiveRate > 0 && falsePositiveRate < 1))  //written this way to reject NaN
+         throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1 (exclusive): " + falsePositiveRate);
+      //the optimal number of bits is: -n * ln(p) / (ln(2)^2)
+      final double optimalBits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+      final double blocks = Math.ceil(optimalBits / BITS_PER_BLOCK);
+      if (blocks > MAX_BLOCKS)
+         throw new IllegalArgumentException("The filter would be too large. expectedInsertions: " + expectedInsertions
+                                            + ", falsePositiveRate: " + falsePositiveRate);
+      return (int) Math.max(1, blocks);
+   }
+
+   /**
+    * @return the optimal number of hashes which is -log2(p) (between 1 and MAX_HASHES)
+    */
+   static int hashCountFor(final double falsePositiveRate)
+   {
+      final long hashes = Math.round(-Math.log(falsePositiveRate) / Math.log(2));
+      return (int) Math.max(1, Math.min(MAX_HASHES, hashes));
+   }
+
+   /**
+    * The finalizer of MurmurHash3 which makes every bit of the result depend on every bit of the hash.
+    */
+   static long mix(long hash)
+   {
+      hash ^= (hash >>> 33);
+      hash *= 0xff51afd7ed558ccdL;
+      hash ^= (hash >>> 33);
+      hash *= 0xc4ceb9fe1a85ec53L;
+      hash ^= (hash >>> 33);
+      return hash;
+   }
+
+   /**
+    * Uses the high 32 bits to pick a block (by multiplying instead of modulus).
+    *
+    * @return the index of the first long in the block
+    */
+   static int blockStart(final long mixedHash, final int blockCount)
+   {
+      return (int) (((mixedHash >>> 32) * blockCount) >>> 32) * LONGS_PER_BLOCK;
+   }
+
+   /**
+    * The second hash for double hashing. It depends on all 64 bits so that elements in the same block don't have
+    * the same second hash. It is never 0 so that each probe is a different bit (most of the time).
+    */
+   static int secondHash(final long mixedHash)
+   {
+      return (int) ((mixedHash * 0x9e3779b97f4a7c15L) >>> 32) | 1;
+   }
+
+   /**
+    * @return a bit from 0 to 511 (the top 9 bits of hash1 + i * hash2)
+    */
+   static int bitInBlock(final int hash1, final int hash2, final int i)
+   {
+      return (hash1 + i * hash2) >>> 23;
+   }
+}
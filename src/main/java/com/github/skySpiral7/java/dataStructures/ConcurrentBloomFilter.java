@@ -0,0 +1,134 @@
+package com.github.skySpiral7.java.dataStructures;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.github.skySpiral7.java.dataStructures.BlockedBloomFilter.LONGS_PER_BLOCK;
+import static com.github.skySpiral7.java.dataStructures.BlockedBloomFilter.bitInBlock;
+import static com.github.skySpiral7.java.dataStructures.BlockedBloomFilter.blockCountFor;
+import static com.github.skySpiral7.java.dataStructures.BlockedBloomFilter.blockStart;
+import static com.github.skySpiral7.java.dataStructures.BlockedBloomFilter.hashCountFor;
+import static com.github.skySpiral7.java.dataStructures.BlockedBloomFilter.mix;
+import static com.github.skySpiral7.java.dataStructures.BlockedBloomFilter.secondHash;
+
+/**
+ * <p>A thread safe version of {@link BlockedBloomFilter} (it has the same layout, sizing, and hashing).
+ * Any number of threads can add and query at the same time without locking: each bit is set with an atomic
+ * bitwise or (see {@link VarHandle#getAndBitwiseOr(Object...)}) which is lock free and mightContain only reads
+ * which is wait free. Bits that are already set aren't written again so that threads adding the same elements don't
+ * fight over the cache line.</p>
+ *
+ * <p>An add happens before a mightContain (of the same element) that returns true. A mightContain that is at the same
+ * time as the add might return false.</p>
+ */
+public final class ConcurrentBloomFilter
+{
+   private static final VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+
+   private final long[] bits;
+   private final int blockCount;
+   private final int numberOfHashes;
+   /**
+    * The number of bits that are set. A LongAdder so that adding from many threads doesn't contend on a single counter.
+    */
+   private final LongAdder setBitCount = new LongAdder();
+
+   /**
+    * @param expectedInsertions the number of elements that will be added. Adding more will raise the false positive rate.
+    * @param falsePositiveRate  the desired chance that mightContain returns true for an element that wasn't added.
+    *                           Must be greater than 0 and less than 1.
+    *
+    * @throws IllegalArgumentException if the filter would need more than 2^31 longs
+    */
+   public ConcurrentBloomFilter(final long expectedInsertions, final double falsePositiveRate)
+   {
+      blockCount = blockCountFor(expectedInsertions, falsePositiveRate);
+      numberOfHashes = hashCountFor(falsePositiveRate);
+      bits = new long[blockCount * LONGS_PER_BLOCK];
+   }
+
+   /**
+    * Adds the hash to this filter. The hash doesn't need to be well distributed (it is mixed before use)
+    * but it should be unique for each element.
+    *
+    * @return true if any bit changed which means the hash definitely hadn't been added before.
+    * false means it might have been added before.
+    *
+    * @see BlockedBloomFilter#hash(Object)
+    */
+   public boolean add(final long hash)
+   {
+      final long mixed = mix(hash);
+      final int blockStart = blockStart(mixed, blockCount);
+      final int hash1 = (int) mixed;
+      final int hash2 = secondHash(mixed);
+      int changedCount = 0;
+      for (int i = 0; i < numberOfHashes; i++)
+      {
+         final int bit = bitInBlock(hash1, hash2, i);
+         final int index = blockStart + (bit >>> 6);
+         final long mask = 1L << bit;
+         if (((long) BITS.getAcquire(bits, index) & mask) != 0) continue;
+         final long oldValue = (long) BITS.getAndBitwiseOr(bits, index, mask);
+         //another thread might have set it after the read
+         if ((oldValue & mask) == 0) changedCount++;
+      }
+      if (changedCount == 0) return false;
+      setBitCount.add(changedCount);
+      return true;
+   }
+
+   /**
+    * @return true if the hash might have been added or false if the hash definitely hasn't been
+    */
+   public boolean mightContain(final long hash)
+   {
+      final long mixed = mix(hash);
+      final int blockStart = blockStart(mixed, blockCount);
+      final int hash1 = (int) mixed;
+      final int hash2 = secondHash(mixed);
+      for (int i = 0; i < numberOfHashes; i++)
+      {
+         final int bit = bitInBlock(hash1, hash2, i);
+         if (((long) BITS.getAcquire(bits, blockStart + (bit >>> 6)) & (1L << bit)) == 0) return false;
+      }
+      return true;
+   }
+
+   /**
+    * The same as add(BlockedBloomFilter.hash(element)).
+    */
+   public boolean add(final Object element){return add(BlockedBloomFilter.hash(element));}
+
+   /**
+    * The same as mightContain(BlockedBloomFilter.hash(element)).
+    */
+   public boolean mightContain(final Object element){return mightContain(BlockedBloomFilter.hash(element));}
+
+   /**
+    * <p>Estimates the number of distinct elements added from the number of bits set: {@code -m / k * ln(1 - X / m)}
+    * where m is the number of bits, k the number of hashes, and X the number of set bits. This can be called while
+    * other threads are adding. It is O(1) since the set bits are counted as they are set.</p>
+    *
+    * <p>The estimate is close until the filter has a lot more elements than expected. Since the bits are in blocks
+    * it slightly underestimates.</p>
+    */
+   public long approximateElementCount()
+   {
+      final double totalBits = getNumberOfBits();
+      final double fractionSet = setBitCount.sum() / totalBits;
+      if (fractionSet >= 1) return Long.MAX_VALUE;
+      return Math.round(-totalBits / numberOfHashes * Math.log1p(-fractionSet));
+   }
+
+   /**
+    * @return the size of the filter in bits (a multiple of 512)
+    */
+   public long getNumberOfBits(){return (long) bits.length * Long.SIZE;}
+
+   /**
+    * @return the number of bits set for each element
+    */
+   public int getNumberOfHashes(){return numberOfHashes;}
+}
@@ -0,0 +1,213 @@
+package com.github.skySpiral7.java.dataStructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.skySpiral7.java.pojo.DequeNode;
+
+/**
+ * <p>An IndexedLinkedList that also has a HashMap from each element to the nodes that contain it (in list order).
+ * This makes contains O(1) and indexOf, lastIndexOf, remove(Object), removeFirstOccurrence, and removeLastOccurrence
+ * O(log n) instead of O(n). It is similar to LinkedHashSet except that duplicates and positional access are allowed.</p>
+ *
+ * <p>Every element must have a hashCode that is consistent with equals and must not be changed while in the list
+ * (in a way that affects equals). Duplicate elements are kept in list order by comparing their indexes which is
+ * O(log n) each. Therefore a lot of duplicates of the same element will be slower.</p>
+ *
+ * @param <E> the data type of the list
+ *
+ * @see IndexedLinkedList
+ */
+public class HashIndexedLinkedList<E> extends IndexedLinkedList<E>
+{
+   private static final long serialVersionUID = 1L;
+
+   /**
+    * Each element mapped to every node that contains it (in list order). Elements not in the list aren't keys.
+    * This is lazily created because the super class constructors and deserialization add elements before
+    * this class's fields are initialized.
+    */
+   protected transient Map<E, List<DequeNode<E>>> nodesByElement;
+
+   /**
+    * Constructs an empty list.
+    */
+   public HashIndexedLinkedList(){}
+
+   /**
+    * Constructs a list containing the elements of the specified collection in the order they are returned by the
+    * collection's iterator.
+    */
+   public HashIndexedLinkedList(final Collection<? extends E> initialElements)
+   {
+      this();
+      addAll(initialElements);
+   }
+
+   /**
+    * Constructs a list containing the elements of the specified array in the same order.
+    */
+   public HashIndexedLinkedList(final E[] initialElements)
+   {
+      this(Arrays.asList(initialElements));
+   }
+
+   @Override
+   protected void insertNodeAfter(final DequeNode<E> prev, final E data)
+   {
+      super.insertNodeAfter(prev, data);
+      final DequeNode<E> newNode = (prev == null) ? first : prev.getNext();
+      addToIndex(newNode);
+   }
+
+   @Override
+   protected E removeNode(final DequeNode<E> nodeToRemove)
+   {
+      removeFromIndex(nodeToRemove);  //must be before the node is removed from the tree
+      return super.removeNode(nodeToRemove);
+   }
+
+   @Override
+   public void clear()
+   {
+      super.clear();
+      nodesByElement = null;
+   }
+
+   @Override
+   protected E replaceData(final DequeNode<E> node, final E newData)
+   {
+      removeFromIndex(node);
+      final E oldData = super.replaceData(node, newData);
+      addToIndex(node);
+      return oldData;
+   }
+
+   /**
+    * O(1)
+    */
+   @Override
+   public boolean contains(final Object objectToFind)
+   {
+      return nodesByElement != null && nodesByElement.containsKey(objectToFind);
+   }
+
+   /**
+    * O(log n)
+    */
+   @Override
+   public int indexOf(final Object objectToFind)
+   {
+      final List<DequeNode<E>> nodes = nodesFor(objectToFind);
+      if (nodes == null) return ELEMENT_NOT_FOUND;
+      return indexOfNode(nodes.get(0));
+   }
+
+   /**
+    * O(log n)
+    */
+   @Override
+   public int lastIndexOf(final Object objectToFind)
+   {
+      final List<DequeNode<E>> nodes = nodesFor(objectToFind);
+      if (nodes == null) return ELEMENT_NOT_FOUND;
+      return indexOfNode(nodes.get(nodes.size() - 1));
+   }
+
+   /**
+    * O(log n)
+    */
+   @Override
+   public boolean removeFirstOccurrence(final Object elementToRemove)
+   {
+      final List<DequeNode<E>> nodes = nodesFor(elementToRemove);
+      if (nodes == null) return false;
+      removeNode(nodes.get(0));
+      return true;
+   }
+
+   /**
+    * O(log n)
+    */
+   @Override
+   public boolean removeLastOccurrence(final Object elementToRemove)
+   {
+      final List<DequeNode<E>> nodes = nodesFor(elementToRemove);
+      if (nodes == null) return false;
+      removeNode(nodes.get(nodes.size() - 1));
+      return true;
+   }
+
+   /**
+    * @return the number of times the element is in this list. This is O(1).
+    */
+   public int count(final Object objectToFind)
+   {
+      final List<DequeNode<E>> nodes = nodesFor(objectToFind);
+      if (nodes == null) return 0;
+      return nodes.size();
+   }
+
+   @Override
+   public HashIndexedLinkedList<E> copy()
+   {
+      return new HashIndexedLinkedList<>(this);
+   }
+
+   /**
+    * @return the nodes that contain the element or null if there are none
+    */
+   private List<DequeNode<E>> nodesFor(final Object element)
+   {
+      if (nodesByElement == null) return null;
+      return nodesByElement.get(element);
+   }
+
+   /**
+    * @param node must already be in the list
+    */
+   private void addToIndex(final DequeNode<E> node)
+   {
+      if (nodesByElement == null) nodesByElement = new HashMap<>();
+      final List<DequeNode<E>> nodes = nodesByElement.computeIfAbsent(node.getData(), key -> new ArrayList<>(1));
+      //the ends are the common case and don't need the index
+      if (nodes.isEmpty() || node.getNext() == null) nodes.add(node);
+      else if (node.getPrev() == null) nodes.add(0, node);
+      else nodes.add(positionFor(nodes, indexOfNode(node)), node);
+   }
+
+   /**
+    * @param node must still be in the list
+    */
+   private void removeFromIndex(final DequeNode<E> node)
+   {
+      final List<DequeNode<E>> nodes = nodesByElement.get(node.getData());
+      if (nodes.size() == 1) nodesByElement.remove(node.getData());
+      //compared by identity since DequeNode.equals compares the data
+      else if (nodes.get(0) == node) nodes.remove(0);
+      else if (nodes.get(nodes.size() - 1) == node) nodes.remove(nodes.size() - 1);
+      else nodes.remove(positionFor(nodes, indexOfNode(node)));
+   }
+
+   /**
+    * Binary search by index.
+    *
+    * @return the position in nodes of the first node whose index is at least listIndex
+    */
+   private int positionFor(final List<DequeNode<E>> nodes, final int listIndex)
+   {
+      int low = 0;
+      int high = nodes.size();
+      while (low < high)
+      {
+         final int middle = (low + high) >>> 1;
+         if (indexOfNode(nodes.get(middle)) < listIndex) low = middle + 1;
+         else high = middle;
+      }
+      return low;
+   }
+}
@@ -0,0 +1,257 @@
+package com.github.skySpiral7.java.dataStructures;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.github.skySpiral7.java.pojo.DequeNode;
+
+/**
+ * <p>A LinkedList where the nodes are also arranged in a balanced tree (a treap) where each node knows the size of its
+ * subtree. This makes finding a node by index O(log n) and so get, set, remove(int), swap, and add(int, E) are
+ * O(log n) instead of O(n).</p>
+ *
+ * <p>The cost is that every insert and remove must also update the tree which is O(log n) expected time (including
+ * at the ends). The nodes also use more memory. Therefore only use this class when there is a lot of positional access.</p>
+ *
+ * @param <E> the data type of the list
+ *
+ * @see LinkedList
+ */
+public class IndexedLinkedList<E> extends LinkedList<E>
+{
+   private static final long serialVersionUID = 1L;
+
+   /**
+    * The root of the tree or null if the list is empty
+    */
+   protected transient IndexedNode<E> root;
+
+   /**
+    * Constructs an empty list.
+    */
+   public IndexedLinkedList(){}
+
+   /**
+    * Constructs a list containing the elements of the specified collection in the order they are returned by the
+    * collection's iterator.
+    */
+   public IndexedLinkedList(final Collection<? extends E> initialElements)
+   {
+      this();
+      addAll(initialElements);
+   }
+
+   /**
+    * Constructs a list containing the elements of the specified array in the same order.
+    */
+   public IndexedLinkedList(final E[] initialElements)
+   {
+      super(initialElements);
+   }
+
+   @Override
+   protected DequeNode<E> createNodeBetween(final DequeNode<E> prev, final E data, final DequeNode<E> next)
+   {
+      return new IndexedNode<>(prev, data, next);
+   }
+
+   @Override
+   protected void insertNodeAfter(final DequeNode<E> prev, final E data)
+   {
+      super.insertNodeAfter(prev, data);
+      final IndexedNode<E> newNode = (IndexedNode<E>) ((prev == null) ? first : prev.getNext());
+      treeInsertAfter((IndexedNode<E>) prev, newNode);
+   }
+
+   @Override
+   protected E removeNode(final DequeNode<E> nodeToRemove)
+   {
+      treeRemove((IndexedNode<E>) nodeToRemove);
+      return super.removeNode(nodeToRemove);
+   }
+
+   @Override
+   public void clear()
+   {
+      super.clear();
+      root = null;
+   }
+
+   /**
+    * O(log n) by using the size of each subtree.
+    */
+   @Override
+   public DequeNode<E> getNode(int index)
+   {
+      rangeCheckForGet(index);
+      IndexedNode<E> currentNode = root;
+      while (true)
+      {
+         final int leftSize = sizeOf(currentNode.left);
+         if (index < leftSize) currentNode = currentNode.left;
+         else if (index == leftSize) return currentNode;
+         else
+         {
+            index -= leftSize + 1;
+            currentNode = currentNode.right;
+         }
+      }
+   }
+
+   /**
+    * @param node must be a node of this list
+    *
+    * @return the index of the node. This is O(log n) by walking up the tree.
+    */
+   public int indexOfNode(final DequeNode<E> node)
+   {
+      IndexedNode<E> currentNode = (IndexedNode<E>) node;
+      int index = sizeOf(currentNode.left);
+      while (currentNode.parent != null)
+      {
+         if (currentNode == currentNode.parent.right) index += sizeOf(currentNode.parent.left) + 1;
+         currentNode = currentNode.parent;
+      }
+      return index;
+   }
+
+   @Override
+   public int indexOf(final Object objectToFind)
+   {
+      int index = 0;
+      if (objectToFind == null)
+      {
+         for (DequeNode<E> currentNode = first; currentNode != null; currentNode = currentNode.getNext())
+         {
+            if (currentNode.getData() == null) return index;
+            index++;
+         }
+      }
+      else
+      {
+         for (DequeNode<E> currentNode = first; currentNode != null; currentNode = currentNode.getNext())
+         {
+            if (objectToFind.equals(currentNode.getData())) return index;
+            index++;
+         }
+      }
+      return ELEMENT_NOT_FOUND;
+   }
+
+   @Override
+   public IndexedLinkedList<E> copy()
+   {
+      return new IndexedLinkedList<>(this);
+   }
+
+   /**
+    * Adds newNode to the tree so that it is after prev in order then restores the heap order of the priorities.
+    *
+    * @param prev null if newNode is first
+    */
+   private void treeInsertAfter(final IndexedNode<E> prev, final IndexedNode<E> newNode)
+   {
+      if (root == null)
+      {
+         root = newNode;
+         return;
+      }
+      //the node in order after prev is the left most node of prev's right subtree
+      if (prev != null && prev.right == null)
+      {
+         prev.right = newNode;
+         newNode.parent = prev;
+      }
+      else
+      {
+         IndexedNode<E> leftMost = (prev == null) ? root : prev.right;
+         while (leftMost.left != null){ leftMost = leftMost.left; }
+         leftMost.left = newNode;
+         newNode.parent = leftMost;
+      }
+      for (IndexedNode<E> ancestor = newNode.parent; ancestor != null; ancestor = ancestor.parent){ ancestor.subtreeSize++; }
+      while (newNode.parent != null && newNode.priority > newNode.parent.priority){ rotateUp(newNode); }
+   }
+
+   /**
+    * Rotates nodeToRemove down until it has at most 1 child then replaces it with that child.
+    */
+   private void treeRemove(final IndexedNode<E> nodeToRemove)
+   {
+      while (nodeToRemove.left != null && nodeToRemove.right != null)
+      {
+         rotateUp((nodeToRemove.left.priority > nodeToRemove.right.priority) ? nodeToRemove.left : nodeToRemove.right);
+      }
+      final IndexedNode<E> child = (nodeToRemove.left != null) ? nodeToRemove.left : nodeToRemove.right;
+      final IndexedNode<E> parent = nodeToRemove.parent;
+      if (child != null) child.parent = parent;
+      if (parent == null) root = child;
+      else if (parent.left == nodeToRemove) parent.left = child;
+      else parent.right = child;
+      for (IndexedNode<E> ancestor = parent; ancestor != null; ancestor = ancestor.parent){ ancestor.subtreeSize--; }
+
+      nodeToRemove.left = nodeToRemove.right = nodeToRemove.parent = null;
+      nodeToRemove.subtreeSize = 1;
+   }
+
+   /**
+    * Swaps node with its parent while keeping the order. The size of every other subtree is unchanged.
+    */
+   private void rotateUp(final IndexedNode<E> node)
+   {
+      final IndexedNode<E> parent = node.parent;
+      final IndexedNode<E> grandParent = parent.parent;
+      if (node == parent.left)
+      {
+         parent.left = node.right;
+         if (node.right != null) node.right.parent = parent;
+         node.right = parent;
+      }
+      else
+      {
+         parent.right = node.left;
+         if (node.left != null) node.left.parent = parent;
+         node.left = parent;
+      }
+      parent.parent = node;
+      node.parent = grandParent;
+      if (grandParent == null) root = node;
+      else if (grandParent.left == parent) grandParent.left = node;
+      else grandParent.right = node;
+
+      parent.subtreeSize = 1 + sizeOf(parent.left) + sizeOf(parent.right);
+      node.subtreeSize = 1 + sizeOf(node.left) + sizeOf(node.right);
+   }
+
+   private static int sizeOf(final IndexedNode<?> node)
+   {
+      if (node == null) return 0;
+      return node.subtreeSize;
+   }
+
+   /**
+    * A DequeNode that is also a node of the tree. The tree is ordered the same as the list and is a max heap of priority.
+    */
+   protected static class IndexedNode<E> extends DequeNode<E>
+   {
+      private static final long serialVersionUID = 1L;
+
+      //the tree isn't serialized since the list only serializes the elements
+      protected transient IndexedNode<E> left;
+      protected transient IndexedNode<E> right;
+      protected transient IndexedNode<E> parent;
+      /**
+       * The number of nodes in the subtree rooted at this node (including this node)
+       */
+      protected int subtreeSize = 1;
+      /**
+       * Random so that the tree is balanced no matter the order of inserts
+       */
+      protected final int priority = ThreadLocalRandom.current().nextInt();
+
+      public IndexedNode(final DequeNode<E> prev, final E data, final DequeNode<E> next)
+      {
+         super(prev, data, next);
+      }
+   }
+}
@@ -0,0 +1,406 @@
+package com.github.skySpiral7.java.dataStructures;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import com.github.skySpiral7.java.Copyable;
+
+/**
+ * <p>A linked list of int values without boxing. Instead of a node object per element the values and links are stored
+ * in parallel arrays (int[] values, int[] next, int[] prev) and each link is an index into those arrays. A removed slot
+ * is put on a free list and reused by the next add so a list that has as many adds as removes doesn't allocate.</p>
+ *
+ * <p>It has the same shape as {@link LinkedList}: deque methods at both ends are O(1) and positional methods walk
+ * from the closer end. Since a removed int can't be null the poll methods don't exist: the remove and get methods
+ * throw NoSuchElementException when empty. Removing by index is removeAt since remove(int) would be ambiguous.</p>
+ *
+ * <p>The links and free list are in {@link SlotLinkedList} which is shared with {@link LongLinkedList}. The methods
+ * that use the values are the same in both (other than the type) so change them together.</p>
+ *
+ * @see LinkedList
+ * @see LongLinkedList
+ */
+public class IntLinkedList extends SlotLinkedList implements Copyable<IntLinkedList>
+{
+   private static final long serialVersionUID = 1L;
+   /**
+    * The number of values that writeTo and readFrom convert at a time
+    */
+   private static final int CODEC_BATCH_SIZE = 8 * 1024;
+
+   protected transient int[] values;
+
+   /**
+    * Constructs an empty list.
+    */
+   public IntLinkedList()
+   {
+      this(DEFAULT_CAPACITY);
+   }
+
+   /**
+    * @param initialCapacity the number of elements that can be added before the arrays grow
+    */
+   public IntLinkedList(final int initialCapacity)
+   {
+      super(initialCapacity);
+      values = new int[initialCapacity];
+   }
+
+   /**
+    * A factory instead of a constructor so that a single value can't be confused with the initial capacity.
+    *
+    * @return a new list containing the values in the same order
+    */
+   public static IntLinkedList of(final int... initialValues)
+   {
+      final IntLinkedList result = new IntLinkedList(initialValues.length);
+      for (final int value : initialValues){ result.addLast(value); }
+      return result;
+   }
+
+   public void addFirst(final int newValue)
+   {
+      linkAfter(NONE, newValue);
+   }
+
+   public void addLast(final int newValue)
+   {
+      linkAfter(last, newValue);
+   }
+
+   /**
+    * The same as addLast.
+    *
+    * @return true
+    */
+   public boolean add(final int newValue)
+   {
+      linkAfter(last, newValue);
+      return true;
+   }
+
+   public void add(final int insertionIndex, final int newValue)
+   {
+      if (insertionIndex == size) addLast(newValue);
+      else linkAfter(prev[slotOf(insertionIndex)], newValue);
+   }
+
+   public int removeFirst()
+   {
+      if (size == 0) throw new NoSuchElementException("The list is empty");
+      return unlink(first);
+   }
+
+   public int removeLast()
+   {
+      if (size == 0) throw new NoSuchElementException("The list is empty");
+      return unlink(last);
+   }
+
+   /**
+    * @return the value that was removed
+    */
+   public int removeAt(final int index)
+   {
+      return unlink(slotOf(index));
+   }
+
+   /**
+    * @return true if the value was found (and removed)
+    */
+   public boolean removeFirstOccurrence(final int valueToRemove)
+   {
+      for (int slot = first; slot != NONE; slot = next[slot])
+      {
+         if (values[slot] == valueToRemove)
+         {
+            unlink(slot);
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * @return true if the value was found (and removed)
+    */
+   public boolean removeLastOccurrence(final int valueToRemove)
+   {
+      for (int slot = last; slot != NONE; slot = prev[slot])
+      {
+         if (values[slot] == valueToRemove)
+         {
+            unlink(slot);
+            return true;
+         }
+      }
+      return false;
+   }
+
+   public int getFirst()
+   {
+      if (size == 0) throw new NoSuchElementException("The list is empty");
+      return values[first];
+   }
+
+   public int getLast()
+   {
+      if (size == 0) throw new NoSuchElementException("The list is empty");
+      return values[last];
+   }
+
+   public int get(final int index)
+   {
+      return values[slotOf(index)];
+   }
+
+   /**
+    * @return the previous value
+    */
+   public int set(final int index, final int newValue)
+   {
+      final int slot = slotOf(index);
+      final int oldValue = values[slot];
+      values[slot] = newValue;
+      //doesn't increment modCount because there was no structural change
+      return oldValue;
+   }
+
+   /**
+    * @return the index of the value or LinkedList.ELEMENT_NOT_FOUND
+    */
+   public int indexOf(final int valueToFind)
+   {
+      int index = 0;
+      for (int slot = first; slot != NONE; slot = next[slot])
+      {
+         if (values[slot] == valueToFind) return index;
+         index++;
+      }
+      return LinkedList.ELEMENT_NOT_FOUND;
+   }
+
+   /**
+    * @return the index of the value or LinkedList.ELEMENT_NOT_FOUND
+    */
+   public int lastIndexOf(final int valueToFind)
+   {
+      int index = size - 1;
+      for (int slot = last; slot != NONE; slot = prev[slot])
+      {
+         if (values[slot] == valueToFind) return index;
+         index--;
+      }
+      return LinkedList.ELEMENT_NOT_FOUND;
+   }
+
+   public boolean contains(final int valueToFind)
+   {
+      return indexOf(valueToFind) != LinkedList.ELEMENT_NOT_FOUND;
+   }
+
+   /**
+    * Shrinks the arrays to the size of the list. The nodes are also rearranged to be in order in the arrays which makes
+    * iterating faster after many removes and inserts.
+    */
+   public void trimToSize()
+   {
+      values = toArray();
+      relinkInOrder();
+   }
+
+   public int[] toArray()
+   {
+      final int[] result = new int[size];
+      int index = 0;
+      for (int slot = first; slot != NONE; slot = next[slot])
+      {
+         result[index] = values[slot];
+         index++;
+      }
+      return result;
+   }
+
+   /**
+    * @return a fail fast iterator that supports remove
+    */
+   public PrimitiveIterator.OfInt iterator()
+   {
+      return new SlotIterator(true);
+   }
+
+   /**
+    * @return a fail fast iterator (from last to first) that supports remove
+    */
+   public PrimitiveIterator.OfInt descendingIterator()
+   {
+      return new SlotIterator(false);
+   }
+
+   public IntStream stream()
+   {
+      return StreamSupport.intStream(Spliterators.spliterator(iterator(), size, Spliterator.ORDERED), false);
+   }
+
+   /**
+    * @return a new list with the same values. The arrays are only as large as needed and in order.
+    */
+   @Override
+   public IntLinkedList copy()
+   {
+      return of(toArray());
+   }
+
+   /**
+    * Writes a compact binary format: the size (int) then each value in order. The values are converted to bytes
+    * a batch at a time instead of one call per value.
+    *
+    * @see #readFrom(DataInput)
+    */
+   public void writeTo(final DataOutput output) throws IOException
+   {
+      output.writeInt(size);
+      final byte[] buffer = new byte[Math.min(size, CODEC_BATCH_SIZE) * Integer.BYTES];
+      final IntBuffer view = ByteBuffer.wrap(buffer).asIntBuffer();
+      int slot = first;
+      int remaining = size;
+      while (remaining > 0)
+      {
+         final int batchSize = Math.min(remaining, CODEC_BATCH_SIZE);
+         view.clear();
+         for (int i = 0; i < batchSize; i++)
+         {
+            view.put(values[slot]);
+            slot = next[slot];
+         }
+         output.write(buffer, 0, batchSize * Integer.BYTES);
+         remaining -= batchSize;
+      }
+   }
+
+   /**
+    * @return a new list that was written by {@link #writeTo(DataOutput)}
+    */
+   public static IntLinkedList readFrom(final DataInput input) throws IOException
+   {
+      final int size = input.readInt();
+      if (size < 0) throw new InvalidObjectException("Negative size: " + size);
+      //the arrays grow as values are read so that a corrupt size can't allocate everything at once
+      final IntLinkedList result = new IntLinkedList(Math.min(size, CODEC_BATCH_SIZE));
+      final byte[] buffer = new byte[Math.min(size, CODEC_BATCH_SIZE) * Integer.BYTES];
+      final IntBuffer view = ByteBuffer.wrap(buffer).asIntBuffer();
+      int remaining = size;
+      while (remaining > 0)
+      {
+         final int batchSize = Math.min(remaining, CODEC_BATCH_SIZE);
+         input.readFully(buffer, 0, batchSize * Integer.BYTES);
+         view.clear();
+         for (int i = 0; i < batchSize; i++){ result.addLast(view.get()); }
+         remaining -= batchSize;
+      }
+      return result;
+   }
+
+   /**
+    * @serialData the same as {@link #writeTo(DataOutput)}
+    */
+   private void writeObject(final ObjectOutputStream out) throws IOException
+   {
+      out.defaultWriteObject();
+      writeTo(out);
+   }
+
+   private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException
+   {
+      in.defaultReadObject();
+      final IntLinkedList read = readFrom(in);
+      values = read.values;
+      copyLinks(read);
+   }
+
+   @Override
+   public boolean equals(final Object other)
+   {
+      if (this == other) return true;
+      if (!(other instanceof IntLinkedList)) return false;
+      final IntLinkedList otherList = (IntLinkedList) other;
+      if (size != otherList.size) return false;
+      int otherSlot = otherList.first;
+      for (int slot = first; slot != NONE; slot = next[slot])
+      {
+         if (values[slot] != otherList.values[otherSlot]) return false;
+         otherSlot = otherList.next[otherSlot];
+      }
+      return true;
+   }
+
+   /**
+    * The same as List.hashCode of the boxed values.
+    */
+   @Override
+   public int hashCode()
+   {
+      int hashCode = 1;
+      for (int slot = first; slot != NONE; slot = next[slot]){ hashCode = 31 * hashCode + Integer.hashCode(values[slot]); }
+      return hashCode;
+   }
+
+   @Override
+   public String toString()
+   {
+      return Arrays.toString(toArray());
+   }
+
+   /**
+    * @param prevSlot the new node comes after this or first if NONE
+    */
+   protected void linkAfter(final int prevSlot, final int newValue)
+   {
+      //not a single statement since values is read before linkSlotAfter (which might replace it) is called
+      final int slot = linkSlotAfter(prevSlot);
+      values[slot] = newValue;
+   }
+
+   /**
+    * @return the value of the removed node
+    */
+   protected int unlink(final int slot)
+   {
+      unlinkSlot(slot);
+      return values[slot];
+   }
+
+   @Override
+   protected void resizeValues(final int newCapacity)
+   {
+      values = Arrays.copyOf(values, newCapacity);
+   }
+
+   private final class SlotIterator extends SlotCursor implements PrimitiveIterator.OfInt
+   {
+      private SlotIterator(final boolean isForward)
+      {
+         super(isForward);
+      }
+
+      @Override
+      public int nextInt()
+      {
+         return values[nextSlot()];
+      }
+   }
+}
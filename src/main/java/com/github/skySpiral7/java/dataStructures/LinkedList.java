@@ -1,41 +1,94 @@
 package com.github.skySpiral7.java.dataStructures;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.AbstractSequentialList;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Deque;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import com.github.skySpiral7.java.Copyable;
 import com.github.skySpiral7.java.exception.ListIndexOutOfBoundsException;
-import com.github.skySpiral7.java.iterators.DequeNodeIterator;
 import com.github.skySpiral7.java.iterators.DescendingListIterator;
+import com.github.skySpiral7.java.iterators.JumpingIterator;
 import com.github.skySpiral7.java.pojo.DequeNode;
 
 //yes some things were copied from JRE stuff
-//consider copying JRE LL read/write object.
 //useless crap in JRE LL: linkfirst/last, unlinkfirst/last, is/checkindex
-public class LinkedList<E> extends AbstractSequentialList<E> implements Deque<E>, ModCountList<E>, Copyable<LinkedList<E>>
+public class LinkedList<E> extends AbstractSequentialList<E>
+      implements Deque<E>, ModCountList<E>, Copyable<LinkedList<E>>, Serializable
 {
+   private static final long serialVersionUID = 1L;
+
    public static final int ELEMENT_NOT_FOUND = -1;
+   /**
+    * parallelSort won't split a list smaller than this (the same granularity as Arrays.parallelSort)
+    */
+   public static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+   /**
+    * removeAll and retainAll copy a collection (that isn't a Set) into a HashSet if it has more elements than this.
+    */
+   protected static final int HASH_LOOKUP_THRESHOLD = 16;
 
    /**
     * The size of the list is stored so that this.size() is O(1) complexity and
     * this.get(int) can check if the index is out of bounds without iteration.
     */
-   protected int size;
+   protected transient int size;
    /**
     * A pointer to the first node or null if the list is empty
     * If the list has 1 element then first == last.
     */
-   protected DequeNode<E> first;
+   protected transient DequeNode<E> first;
    /**
     * A pointer to the last node or null if the list is empty
     * If the list has 1 element then first == last.
     */
-   protected DequeNode<E> last;
+   protected transient DequeNode<E> last;
+   /**
+    * The node most recently found by getNode (or null). This makes get(i) in a loop (with i increasing or decreasing)
+    * O(1) per call instead of starting from an end each time. It is only valid while finger.modCount == modCount.
+    * Since getNode writes it, the finger is a single immutable object so that threads that are only reading
+    * can't see one call's node with another call's index.
+    */
+   protected transient Finger<E> finger;
+
+   /**
+    * Removed nodes are kept here for reuse or null if pooling is disabled (the default).
+    *
+    * @see #setMaxPooledNodes(int)
+    */
+   protected transient DequeNode.Pool<E> nodePool;
+   /**
+    * True if copy() shares the nodes instead of copying them.
+    *
+    * @see #setCopyOnWriteSnapshots(boolean)
+    */
+   protected transient boolean copyOnWriteSnapshots;
+   /**
+    * The number of lists using these nodes or null if the nodes aren't shared. Every list that shares the nodes has
+    * the same counter.
+    */
+   protected transient AtomicInteger sharedChain;
 
    /**
     * Constructs an empty list.
@@ -84,6 +137,7 @@ public class LinkedList<E> extends AbstractSequentialList<E> implements Deque<E>
    @Override
    public boolean offerFirst(E newElement)
    {
+      ensureExclusive();
       if (size == Integer.MAX_VALUE) return false;
       insertNodeAfter(null, newElement);
       return true;
@@ -92,6 +146,7 @@ public class LinkedList<E> extends AbstractSequentialList<E> implements Deque<E>
    @Override
    public boolean offerLast(E newElement)
    {
+      ensureExclusive();
       if (size == Integer.MAX_VALUE) return false;
       insertNodeAfter(last, newElement);  //if(this.isEmpty()) then it will insert first
       return true;
@@ -103,7 +158,7 @@ public class LinkedList<E> extends AbstractSequentialList<E> implements Deque<E>
       DequeNode<E> next;
       if (prev == null) next = first;
       else next = prev.getNext();
-      DequeNode<E> newNode = DequeNode.Factory.createNodeBetween(prev, data, next);
+      DequeNode<E> newNode = createNodeBetween(prev, data, next);
       if (prev == null) first = newNode;  //insert first
       if (next == null) last = newNode;  //insert last
       //these also cover if list was empty. insert between is covered by the factory
@@ -111,9 +166,47 @@ public class LinkedList<E> extends AbstractSequentialList<E> implements Deque<E>
       modCount++;
    }
 
+   /**
+    * Every node is created by this method so that a child class can use a child class of DequeNode.
+    *
+    * @see DequeNode.Factory#createNodeBetween(DequeNode, Object, DequeNode)
+    */
+   protected DequeNode<E> createNodeBetween(DequeNode<E> prev, E data, DequeNode<E> next)
+   {
+      if (nodePool != null) return nodePool.acquire(prev, data, next);
+      return DequeNode.Factory.createNodeBetween(prev, data, next);
+   }
+
+   /**
+    * <p>Enables or disables reusing nodes. When enabled, nodes that are removed (including by clear) are kept
+    * (up to maxPooledNodes) and reused by later adds so that a list that has as many adds as removes doesn't allocate.
+    * Disabled by default.</p>
+    *
+    * <p>A node returned by {@link #getNode(int)} must not be used after it is removed since it may be reused.
+    * A child class that overrides {@link #createNodeBetween(DequeNode, Object, DequeNode)} doesn't get nodes from the pool.</p>
+    *
+    * @param maxPooledNodes 0 to disable pooling (which also discards the pooled nodes)
+    */
+   public void setMaxPooledNodes(int maxPooledNodes)
+   {
+      if (maxPooledNodes < 0) throw new IllegalArgumentException("maxPooledNodes can't be negative: " + maxPooledNodes);
+      if (maxPooledNodes == 0) nodePool = null;
+      else nodePool = new DequeNode.Pool<E>(maxPooledNodes);
+   }
+
+   /**
+    * @return 0 if pooling is disabled
+    */
+   public int getMaxPooledNodes()
+   {
+      if (nodePool == null) return 0;
+      return nodePool.getMaxSize();
+   }
+
    @Override
    public E removeFirst()
    {
+      ensureExclusive();
       if (isEmpty()) throw new IllegalStateException("The list is empty. The first element can't be removed because it doesn't exist");
       return removeNode(first);
    }
@@ -121,6 +214,7 @@ public class LinkedList<E> extends AbstractSequentialList<E> implements Deque<E>
    @Override
    public E removeLast()
    {
+      ensureExclusive();
       if (isEmpty()) throw new IllegalStateException("The list is empty. The last element can't be removed because it doesn't exist");
       return removeNode(last);
    }
@@ -128,6 +222,7 @@ public class LinkedList<E> extends AbstractSequentialList<E> implements Deque<E>
    @Override
    public E pollFirst()
    {
+      ensureExclusive();
       if (isEmpty()) return null;
       return removeNode(first);
    }
@@ -135,11 +230,22 @@ public class LinkedList<E> extends AbstractSequentialList<E> implements Deque<E>
    @Override
    public E pollLast()
    {
+      ensureExclusive();
       if (isEmpty()) return null;
       return removeNode(last);
    }
 
    protected E removeNode(DequeNode<E> nodeToRemove)
+   {
+      E returnValue = unlinkNode(nodeToRemove);
+      modCount++;
+      return returnValue;
+   }
+
+   /**
+    * The same as removeNode except that modCount isn't changed so that a bulk remove can change it once.
+    */
+   private E unlinkNode(DequeNode<E> nodeToRemove)
    {
       //assert(!this.empty() && nodeToRemove != null);
       E returnValue = nodeToRemove.getData();
@@ -149,8 +255,10 @@ public class LinkedList<E> extends AbstractSequentialList<E> implements Deque<E>
       if (before == null) first = after;  //since the first node is being removed
       if (after == null) last = before;  //since the last node is being removed
       nodeToRemove.remove();
+      final Finger<E> oldFinger = finger;
+      if (oldFinger != null && oldFinger.node == nodeToRemove) finger = null;  //don't keep the removed data reachable
+      if (nodePool != null) nodePool.release(nodeToRemove);
       size--;
-      modCount++;
 
       return returnValue;
    }
@@ -183,24 +291,131 @@ public class LinkedList<E> extends AbstractSequentialList<E> implements Deque<E>
       return last.getData();
    }
 
+   /**
+    * Removes the node as soon as it is found instead of finding the index then walking to it again.
+    */
    @Override
    public boolean removeFirstOccurrence(Object elementToRemove)
    {
-      int index = this.indexOf(elementToRemove);
-      if (index == ELEMENT_NOT_FOUND) return false;
-      remove(index);
-      return true;
+      int index = 0;
+      for (DequeNode<E> currentNode = first; currentNode != null; currentNode = currentNode.getNext())
+      {
+         if (Objects.equals(elementToRemove, currentNode.getData()))
+         {
+            if (sharedChain == null) removeNode(currentNode);
+            else remove(index);  //the nodes must be copied first
+            return true;
+         }
+         index++;
+      }
+      return false;
    }
 
    @Override
    public boolean removeLastOccurrence(Object elementToRemove)
    {
-      int index = this.lastIndexOf(elementToRemove);
-      if (index == ELEMENT_NOT_FOUND) return false;
-      remove(index);
+      int index = size;
+      for (DequeNode<E> currentNode = last; currentNode != null; currentNode = currentNode.getPrev())
+      {
+         index--;
+         if (Objects.equals(elementToRemove, currentNode.getData()))
+         {
+            if (sharedChain == null) removeNode(currentNode);
+            else remove(index);  //the nodes must be copied first
+            return true;
+         }
+      }
+      return false;
+   }
+
+   @Override
+   public boolean remove(Object elementToRemove)
+   {
+      return removeFirstOccurrence(elementToRemove);
+   }
+
+   /**
+    * Removes every matching node in a single walk and only changes modCount once (if anything was removed).
+    * A child class that can't relink nodes (see {@link #canRelinkNodes()}) has removeNode called for each match instead.
+    */
+   @Override
+   public boolean removeIf(Predicate<? super E> filter)
+   {
+      Objects.requireNonNull(filter);
+      int index = 0;
+      DequeNode<E> currentNode = first;
+      while (currentNode != null && !filter.test(currentNode.getData()))
+      {
+         currentNode = currentNode.getNext();
+         index++;
+      }
+      if (currentNode == null) return false;
+      if (sharedChain != null)
+      {
+         ensureExclusive();  //only copies the nodes if something will be removed
+         currentNode = getNode(index);
+      }
+
+      boolean relink = canRelinkNodes();
+      int removedCount = 0;
+      try
+      {
+         while (currentNode != null)
+         {
+            DequeNode<E> next = currentNode.getNext();
+            //the first node is already known to match
+            if (removedCount == 0 || filter.test(currentNode.getData()))
+            {
+               if (relink) unlinkNode(currentNode);
+               else removeNode(currentNode);
+               removedCount++;
+            }
+            currentNode = next;
+         }
+      }
+      finally
+      {
+         //the finger might point to a removed node. also covers the filter throwing after some were removed
+         finger = null;
+         if (relink) modCount++;
+      }
       return true;
    }
 
+   /**
+    * O(n) if elementsToRemove is a Set or small. Otherwise elementsToRemove is first copied into a HashSet.
+    *
+    * @see #removeIf(Predicate)
+    */
+   @Override
+   public boolean removeAll(Collection<?> elementsToRemove)
+   {
+      Collection<?> lookup = toLookup(elementsToRemove);
+      return removeIf(lookup::contains);
+   }
+
+   /**
+    * O(n) if elementsToKeep is a Set or small. Otherwise elementsToKeep is first copied into a HashSet.
+    *
+    * @see #removeIf(Predicate)
+    */
+   @Override
+   public boolean retainAll(Collection<?> elementsToKeep)
+   {
+      Collection<?> lookup = toLookup(elementsToKeep);
+      return removeIf(element -> !lookup.contains(element));
+   }
+
+   /**
+    * @return the collection to call contains on for each element of this list
+    */
+   private Collection<?> toLookup(Collection<?> elements)
+   {
+      Objects.requireNonNull(elements);
+      if (elements instanceof Set || elements.size() <= HASH_LOOKUP_THRESHOLD) return elements;
+      return new HashSet<>(elements);
+   }
+
    @Override
    public boolean offer(E newElement)
    {
@@ -246,16 +461,31 @@ public class LinkedList<E> extends AbstractSequentialList<E> implements Deque<E>
    @Override
    public Iterator<E> descendingIterator()
    {
-      return DescendingListIterator.iterateBackwards(new DequeNodeIterator.ValueIterator<E>(last, size));
+      return DescendingListIterator.iterateBackwards(listIterator(size));
    }
 
    @Override
    public ListIterator<E> listIterator(int startingIndex)
    {
-      if (startingIndex == 0 && this.isEmpty()) return Collections.emptyListIterator();
-      rangeCheckForGet(startingIndex);
-      ListIterator<E> returnValue = new DequeNodeIterator.ValueIterator<E>(getNode(startingIndex), startingIndex);
-      return returnValue;
+      return jumpingIterator(startingIndex);
+   }
+
+   /**
+    * @see NodeIterator
+    */
+   public JumpingIterator<E> jumpingIterator()
+   {
+      return jumpingIterator(0);
+   }
+
+   /**
+    * @param startingIndex the index of the element that next() will return. size() is allowed.
+    *
+    * @see NodeIterator
+    */
+   public JumpingIterator<E> jumpingIterator(int startingIndex)
+   {
+      return new NodeIterator(startingIndex);
    }
 
    @Override
@@ -278,6 +508,7 @@ public class LinkedList<E> extends AbstractSequentialList<E> implements Deque<E>
    @Override
    public boolean add(E newElement)
    {
+      ensureExclusive();
       if (size == Integer.MAX_VALUE) return false;
       insertNodeAfter(last, newElement);
       return true;
@@ -286,6 +517,7 @@ public class LinkedList<E> extends AbstractSequentialList<E> implements Deque<E>
    @Override
    public void add(int insertionIndex, E newElement)
    {
+      ensureExclusive();
       if (size == Integer.MAX_VALUE) return;
       if (insertionIndex == size)
       {
@@ -300,35 +532,168 @@ public class LinkedList<E> extends AbstractSequentialList<E> implements Deque<E>
       insertNodeAfter(getNode(insertionIndex).getPrev(), newElement);
    }
 
+   /**
+    * The new nodes are created as a chain and then linked into this list all at once (with a single modCount change).
+    */
    @Override
    public boolean addAll(int insertionIndex, Collection<? extends E> newElements)
    {
-      if (newElements.size() > (Integer.MAX_VALUE - size)) return false;  //must use subtraction to prevent overflow
-      if (insertionIndex == 0) return this.addAll(newElements);
       rangeCheckForAdd(insertionIndex);
-      boolean modified = false;
-      Iterator<? extends E> newElementsIterator = newElements.iterator();
-      DequeNode<E> insertAfterThisNode = getNode(insertionIndex).getPrev();
-      while (newElementsIterator.hasNext())
+      if (newElements.size() > (Integer.MAX_VALUE - size)) return false;  //must use subtraction to prevent overflow
+      if (newElements.isEmpty()) return false;
+      ensureExclusive();
+      DequeNode<E> insertAfterThisNode = (insertionIndex == 0) ? null : getNode(insertionIndex - 1);
+      if (!canRelinkNodes())
+      {
+         for (E newElement : newElements)
+         {
+            insertNodeAfter(insertAfterThisNode, newElement);
+            insertAfterThisNode = (insertAfterThisNode == null) ? first : insertAfterThisNode.getNext();
+         }
+         return true;
+      }
+
+      DequeNode<E> chainFirst = null;
+      DequeNode<E> chainLast = null;
+      int chainSize = 0;
+      for (E newElement : newElements)
       {
-         insertNodeAfter(insertAfterThisNode, newElementsIterator.next());
-         modified = true;
+         chainLast = createNodeBetween(chainLast, newElement, null);
+         if (chainFirst == null) chainFirst = chainLast;
+         chainSize++;
       }
-      return modified;
+      linkChainAfter(insertAfterThisNode, chainFirst, chainLast, chainSize);
+      return true;
    }
 
    @Override
    public boolean addAll(Collection<? extends E> newElements)
    {
-      if (newElements.size() > (Integer.MAX_VALUE - size)) return false;  //must use subtraction to prevent overflow
-      return super.addAll(newElements);
+      return addAll(size, newElements);
+   }
+
+   /**
+    * Moves every element of other to the end of this list. Other will be empty afterwards.
+    *
+    * @see #transferRange(int, int, LinkedList, int)
+    */
+   public void transferAll(LinkedList<E> other)
+   {
+      other.transferRange(0, other.size, this, this.size);
+   }
+
+   /**
+    * Moves the elements from fromIndex (inclusive) to toIndex (exclusive) out of this list and inserts them into
+    * target starting at atIndex. If both lists can relink their nodes (see {@link #canRelinkNodes()}) then the nodes
+    * themselves are moved which is O(1) plus the cost of finding the indexes. Otherwise the elements are removed
+    * then added one at a time.
+    *
+    * @param target must not be this list
+    *
+    * @throws IllegalStateException if target would have more than Integer.MAX_VALUE elements
+    */
+   public void transferRange(int fromIndex, int toIndex, LinkedList<E> target, int atIndex)
+   {
+      if (target == this) throw new IllegalArgumentException("Can't transfer to the same list");
+      if (fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+         throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", size: " + size);
+      target.rangeCheckForAdd(atIndex);
+      int transferSize = toIndex - fromIndex;
+      if (transferSize > (Integer.MAX_VALUE - target.size))  //must use subtraction to prevent overflow
+         throw new IllegalStateException("Capacity violating. The maximum number of elements can't exceed Integer.MAX_VALUE.");
+      if (transferSize == 0) return;
+      this.ensureExclusive();
+      target.ensureExclusive();
+
+      if (!this.canRelinkNodes() || !target.canRelinkNodes())
+      {
+         List<E> transferred = new ArrayList<>(transferSize);
+         for (int i = 0; i < transferSize; i++){ transferred.add(remove(fromIndex)); }
+         target.addAll(atIndex, transferred);
+         return;
+      }
+
+      DequeNode<E> chainFirst = getNode(fromIndex);
+      DequeNode<E> chainLast = getNode(toIndex - 1);  //the finger makes this start from chainFirst if it is closer
+      unlinkChain(chainFirst, chainLast, transferSize);
+      DequeNode<E> insertAfterThisNode = (atIndex == 0) ? null : target.getNode(atIndex - 1);
+      target.linkChainAfter(insertAfterThisNode, chainFirst, chainLast, transferSize);
+   }
+
+   /**
+    * Splits this list into 2 lists. This list keeps the elements before splitIndex.
+    *
+    * @return a new list containing the elements from splitIndex to the end
+    *
+    * @see #transferRange(int, int, LinkedList, int)
+    */
+   public LinkedList<E> split(int splitIndex)
+   {
+      rangeCheckForAdd(splitIndex);
+      LinkedList<E> result = new LinkedList<E>();
+      transferRange(splitIndex, size, result, 0);
+      return result;
+   }
+
+   /**
+    * Nodes are only linked or unlinked directly (skipping insertNodeAfter and removeNode) if this returns true.
+    * This is only true for LinkedList itself so that a child class that tracks each node (such as IndexedLinkedList)
+    * is kept up to date. A child class that doesn't need insertNodeAfter and removeNode for each node can return true.
+    */
+   protected boolean canRelinkNodes()
+   {
+      return getClass() == LinkedList.class;
+   }
+
+   /**
+    * @param prev       the chain is inserted after this node or first if null
+    * @param chainFirst the first node of a stand alone chain
+    * @param chainLast  the last node of the chain
+    * @param chainSize  the number of nodes in the chain
+    */
+   protected void linkChainAfter(DequeNode<E> prev, DequeNode<E> chainFirst, DequeNode<E> chainLast, int chainSize)
+   {
+      DequeNode<E> next;
+      if (prev == null) next = first;
+      else next = prev.getNext();
+      chainFirst.insertThroughBetween(chainLast, prev, next);
+      if (prev == null) first = chainFirst;
+      if (next == null) last = chainLast;
+      size += chainSize;
+      modCount++;
+   }
+
+   /**
+    * @param chainFirst a node of this list
+    * @param chainLast  chainFirst or a node after it
+    * @param chainSize  the number of nodes from chainFirst through chainLast
+    */
+   protected void unlinkChain(DequeNode<E> chainFirst, DequeNode<E> chainLast, int chainSize)
+   {
+      DequeNode<E> before = chainFirst.getPrev();
+      DequeNode<E> after = chainLast.getNext();
+      if (before == null) first = after;
+      if (after == null) last = before;
+      chainFirst.removeThrough(chainLast);
+      finger = null;  //might be in the chain
+      size -= chainSize;
+      modCount++;
    }
 
    @Override
    public void clear()
    {
-      //unlinking all the nodes is cargo cult. the garbage collector can handle it
+      //the shared nodes are left alone (not pooled) since the other lists are using them
+      if (stopSharing()) first = null;
+      //unlinking all the nodes is cargo cult. the garbage collector can handle it (except for the nodes being pooled)
+      while (nodePool != null && nodePool.hasRoom() && first != null)
+      {
+         DequeNode<E> nodeToPool = first;
+         first = first.getNext();
+         nodePool.release(nodeToPool.remove());
+      }
       first = last = null;
+      finger = null;
       size = 0;
       modCount++;
    }
@@ -366,48 +731,76 @@ public class LinkedList<E> extends AbstractSequentialList<E> implements Deque<E>
    @Override
    public E remove(int index)
    {
+      ensureExclusive();
       DequeNode<E> nodeToRemove = getNode(index);
       E returnValue = nodeToRemove.getData();
       removeNode(nodeToRemove);
       return returnValue;
    }
 
+   /**
+    * Starts from whichever is closest to index: the first node, the last node, or the node previously found
+    * (if the list hasn't been structurally modified since then).
+    */
    public DequeNode<E> getNode(int index)
    {
       rangeCheckForGet(index);
 
-      if (index < (size >> 1))
+      DequeNode<E> currentNode;
+      int currentIndex;
+      final int distanceFromLast = size - 1 - index;
+      final Finger<E> oldFinger = finger;  //only read once since another thread might replace it
+      if (oldFinger != null && oldFinger.modCount == modCount
+          && Math.abs(index - oldFinger.index) < Math.min(index, distanceFromLast))
+      {
+         currentNode = oldFinger.node;
+         currentIndex = oldFinger.index;
+      }
+      else if (index <= distanceFromLast)
       {
-         DequeNode<E> currentNode = first;
-         for (int i = 0; i < index; i++){ currentNode = currentNode.getNext(); }
-         return currentNode;
+         currentNode = first;
+         currentIndex = 0;
       }
       else
       {
-         DequeNode<E> currentNode = last;
-         for (int i = size - 1; i > index; i--){ currentNode = currentNode.getPrev(); }
-         return currentNode;
+         currentNode = last;
+         currentIndex = size - 1;
       }
+      for (; currentIndex < index; currentIndex++){ currentNode = currentNode.getNext(); }
+      for (; currentIndex > index; currentIndex--){ currentNode = currentNode.getPrev(); }
+
+      finger = new Finger<>(currentNode, index, modCount);
+      return currentNode;
    }
 
    @Override
    public E set(int index, E newValue)
    {
-      DequeNode<E> nodeToChange = getNode(index);
-      E oldValue = nodeToChange.getData();
-      nodeToChange.setData(newValue);
-      //doesn't increment modCount because there was no structural change
-      return oldValue;
+      ensureExclusive();
+      return replaceData(getNode(index), newValue);
    }
 
    public void swap(int indexA, int indexB)
    {
+      ensureExclusive();
       DequeNode<E> nodeA = getNode(indexA);
       DequeNode<E> nodeB = getNode(indexB);
       E temp = nodeA.getData();
-      nodeA.setData(nodeB.getData());
-      nodeB.setData(temp);
-      //doesn't increment modCount because there was no structural change
+      replaceData(nodeA, nodeB.getData());
+      replaceData(nodeB, temp);
+   }
+
+   /**
+    * Every element is replaced by this method (set, swap, and the iterator's set) so that a child class can track it.
+    * Doesn't increment modCount because there is no structural change.
+    *
+    * @return the old data
+    */
+   protected E replaceData(DequeNode<E> node, E newData)
+   {
+      E oldData = node.getData();
+      node.setData(newData);
+      return oldData;
    }
 
    @Override
@@ -455,26 +848,508 @@ public class LinkedList<E> extends AbstractSequentialList<E> implements Deque<E>
       return destination;
    }
 
+   /**
+    * Sorts by relinking the nodes (see {@link DequeNode#sortChain(DequeNode, DequeNode, Comparator)}) which is stable,
+    * O(n log n), and doesn't copy the elements into an array. A list that is already sorted only takes O(n).
+    * If {@link #canRelinkNodes()} is false then the List default is used instead.
+    *
+    * @param comparator null means natural ordering
+    */
+   @Override
+   public void sort(Comparator<? super E> comparator)
+   {
+      if (!canRelinkNodes())
+      {
+         super.sort(comparator);
+         return;
+      }
+      if (size < 2) return;
+      ensureExclusive();
+      first = DequeNode.sortChain(first, last, comparator);
+      DequeNode<E> newLast = first;
+      while (newLast.getNext() != null){ newLast = newLast.getNext(); }
+      last = newLast;
+      finger = null;
+      modCount++;
+   }
+
+   /**
+    * The same as {@link #sort(Comparator)} except that large lists are split into pieces that are sorted at the same
+    * time (using the common ForkJoinPool) then merged. The pieces are split and joined by relinking the nodes.
+    *
+    * @param comparator null means natural ordering
+    */
+   public void parallelSort(Comparator<? super E> comparator)
+   {
+      if (!canRelinkNodes() || size < PARALLEL_SORT_THRESHOLD) sort(comparator);
+      else ForkJoinPool.commonPool().invoke(new SortTask<E>(this, comparator));
+   }
+
+   /**
+    * A node and where it was. Immutable so that it is always read and written as a whole.
+    *
+    * @see #finger
+    */
+   protected static final class Finger<E>
+   {
+      protected final DequeNode<E> node;
+      protected final int index;
+      /**
+       * The modCount when node was found
+       */
+      protected final int modCount;
+
+      protected Finger(final DequeNode<E> node, final int index, final int modCount)
+      {
+         this.node = node;
+         this.index = index;
+         this.modCount = modCount;
+      }
+   }
+
+   /**
+    * Sorts each half at the same time then joins them. Sorting the joined list is a single merge since each half is a run.
+    */
+   protected static class SortTask<E> extends RecursiveAction
+   {
+      private static final long serialVersionUID = 1L;
+
+      protected final LinkedList<E> list;
+      protected final Comparator<? super E> comparator;
+
+      protected SortTask(LinkedList<E> list, Comparator<? super E> comparator)
+      {
+         this.list = list;
+         this.comparator = comparator;
+      }
+
+      @Override
+      protected void compute()
+      {
+         if (list.size < PARALLEL_SORT_THRESHOLD)
+         {
+            list.sort(comparator);
+            return;
+         }
+         LinkedList<E> secondHalf = list.split(list.size >>> 1);
+         invokeAll(new SortTask<E>(list, comparator), new SortTask<E>(secondHalf, comparator));
+         list.transferAll(secondHalf);
+         list.sort(comparator);
+      }
+   }
+
    @Override
    public int getModCount()
    {
       return modCount;
    }
 
+   /**
+    * If {@link #setCopyOnWriteSnapshots(boolean)} is enabled then this is O(1) otherwise it is O(n).
+    */
    @Override
    public LinkedList<E> copy()
    {
-      return new LinkedList<E>(this);  //acts as a copy constructor
+      LinkedList<E> result;
+      if (copyOnWriteSnapshots && canRelinkNodes())
+      {
+         result = new LinkedList<E>();
+         if (!isEmpty())
+         {
+            if (sharedChain == null) sharedChain = new AtomicInteger(1);
+            sharedChain.incrementAndGet();
+            result.sharedChain = sharedChain;
+            result.first = first;
+            result.last = last;
+            result.size = size;
+         }
+      }
+      else result = new LinkedList<E>(this);  //acts as a copy constructor
+      result.setMaxPooledNodes(getMaxPooledNodes());
+      result.copyOnWriteSnapshots = copyOnWriteSnapshots;
+      return result;
+   }
+
+   /**
+    * <p>Enables or disables copy on write snapshots. When enabled, {@link #copy()} is O(1) because the copy shares
+    * this list's nodes. Both lists can still be changed: the first change to a list that is sharing nodes copies
+    * every node first (which is O(n)) and after that the list has its own nodes. The last list still using the shared
+    * nodes doesn't need to copy them. Therefore taking many copies for readers is cheap and the writer pays for the
+    * copy at most once per snapshot. Disabled by default. Only LinkedList itself (not a child class) shares nodes.</p>
+    *
+    * <p>Nodes aren't copied one at a time because each node links to both of its neighbors: changing any node would
+    * change what the other lists see. For the same reason nodes returned by {@link #getNode(int)} must not be changed
+    * directly and an iterator created before a copy must not be used to change this list. The shared counter is
+    * thread safe so snapshots can be given to other threads (a list copies the shared nodes before letting them go so
+    * that another list can't change them mid copy). However each list itself is still not thread safe.</p>
+    */
+   public void setCopyOnWriteSnapshots(boolean copyOnWriteSnapshots)
+   {
+      this.copyOnWriteSnapshots = copyOnWriteSnapshots;
+   }
+
+   /**
+    * @see #setCopyOnWriteSnapshots(boolean)
+    */
+   public boolean isCopyOnWriteSnapshots()
+   {
+      return copyOnWriteSnapshots;
+   }
+
+   /**
+    * This can be true even if copy on write snapshots have since been disabled.
+    *
+    * @return true if the nodes might be shared with a copy in which case the next change will copy them first
+    * (so any node held before then is no longer part of this list)
+    *
+    * @see #setCopyOnWriteSnapshots(boolean)
+    */
+   public boolean isSharingNodes()
+   {
+      return sharedChain != null;
+   }
+
+   /**
+    * Must be called before changing the nodes. If the nodes are shared with another list then this list copies
+    * them (which changes the modCount).
+    */
+   protected void ensureExclusive()
+   {
+      if (sharedChain == null) return;
+      //no other list has the nodes (and only a list that has them can share them again)
+      if (sharedChain.get() == 1)
+      {
+         sharedChain = null;
+         return;
+      }
+      //copy before giving up the nodes else the last other list could change them while they are being copied
+      DequeNode<E> cursor = first;
+      first = last = null;
+      finger = null;
+      for (int i = 0; i < size; i++)
+      {
+         last = createNodeBetween(last, cursor.getData(), null);
+         if (first == null) first = last;
+         cursor = cursor.getNext();
+      }
+      stopSharing();
+      modCount++;
+   }
+
+   /**
+    * @return true if another list is still using the nodes (in which case this list must not change them)
+    */
+   private boolean stopSharing()
+   {
+      if (sharedChain == null) return false;
+      boolean stillShared = (sharedChain.decrementAndGet() != 0);
+      sharedChain = null;
+      return stillShared;
+   }
+
+   /**
+    * Writes the size then each element. The nodes aren't written (which would recurse through every link)
+    * and neither is the node pool setting.
+    *
+    * @serialData the size (int) followed by each element (Object) in order
+    */
+   private void writeObject(ObjectOutputStream out) throws IOException
+   {
+      out.defaultWriteObject();
+      out.writeInt(size);
+      for (DequeNode<E> cursor = first; cursor != null; cursor = cursor.getNext()){ out.writeObject(cursor.getData()); }
+   }
+
+   /**
+    * Links the elements in a loop. Uses insertNodeAfter so that a child class can track each node.
+    */
+   @SuppressWarnings("unchecked")
+   private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+   {
+      in.defaultReadObject();
+      int elementCount = in.readInt();
+      if (elementCount < 0) throw new InvalidObjectException("Negative size: " + elementCount);
+      for (int i = 0; i < elementCount; i++){ insertNodeAfter(last, (E) in.readObject()); }
+   }
+
+   /**
+    * <p>A list iterator that walks the nodes of this list. Changes are made with insertNodeAfter, removeNode, and
+    * replaceData so that the size, modCount, and any child class tracking stay correct. It is fail fast.</p>
+    *
+    * <p>Jumping to either end is O(1). Jumping to any other index starts from the current position if that is closest
+    * otherwise it uses {@link #getNode(int)} (which starts from the closest end or is O(log n) for IndexedLinkedList)
+    * instead of calling next() or previous() once per step.</p>
+    */
+   protected class NodeIterator implements JumpingIterator<E>
+   {
+      /**
+       * null if at the end
+       */
+      protected DequeNode<E> nextNode;
+      protected int nextIndex;
+      /**
+       * The node returned by the most recent next() or previous(). null if there is none or it was removed.
+       */
+      protected DequeNode<E> lastReturned;
+      protected int expectedModCount;
+
+      protected NodeIterator(int startingIndex)
+      {
+         rangeCheckForAdd(startingIndex);
+         nextNode = (startingIndex == size) ? null : getNode(startingIndex);
+         nextIndex = startingIndex;
+         expectedModCount = modCount;
+      }
+
+      @Override
+      public boolean hasNext()
+      {
+         return nextIndex < size;
+      }
+
+      @Override
+      public E next()
+      {
+         checkForComodification();
+         if (!hasNext()) throw new NoSuchElementException();
+         lastReturned = nextNode;
+         nextNode = nextNode.getNext();
+         nextIndex++;
+         return lastReturned.getData();
+      }
+
+      @Override
+      public boolean hasPrevious()
+      {
+         return nextIndex > 0;
+      }
+
+      @Override
+      public E previous()
+      {
+         checkForComodification();
+         if (!hasPrevious()) throw new NoSuchElementException();
+         nextNode = (nextNode == null) ? last : nextNode.getPrev();
+         lastReturned = nextNode;
+         nextIndex--;
+         return lastReturned.getData();
+      }
+
+      @Override
+      public int nextIndex()
+      {
+         return nextIndex;
+      }
+
+      @Override
+      public int previousIndex()
+      {
+         return nextIndex - 1;
+      }
+
+      @Override
+      public void remove()
+      {
+         if (lastReturned == null) throw new IllegalStateException();
+         checkForComodification();
+         ensureIteratorExclusive();
+         if (lastReturned == nextNode) nextNode = nextNode.getNext();  //went back
+         else nextIndex--;
+         removeNode(lastReturned);
+         lastReturned = null;
+         expectedModCount = modCount;
+      }
+
+      @Override
+      public void set(E newData)
+      {
+         if (lastReturned == null) throw new IllegalStateException();
+         checkForComodification();
+         ensureIteratorExclusive();
+         replaceData(lastReturned, newData);
+      }
+
+      @Override
+      public void add(E newData)
+      {
+         checkForComodification();
+         if (size == Integer.MAX_VALUE)
+            throw new IllegalStateException("Capacity violating. The maximum number of elements can't exceed Integer.MAX_VALUE.");
+         ensureIteratorExclusive();
+         insertNodeAfter((nextNode == null) ? last : nextNode.getPrev(), newData);
+         nextIndex++;
+         lastReturned = null;
+         expectedModCount = modCount;
+      }
+
+      @Override
+      public void jumpToBeginning()
+      {
+         jumpToIndex(0);
+      }
+
+      @Override
+      public void jumpToEnd()
+      {
+         jumpToIndex(size);
+      }
+
+      @Override
+      public void jumpByIndex(int jumpAmount)
+      {
+         long destination = (long) nextIndex + jumpAmount;  //long to prevent overflow
+         jumpToIndex((int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, destination)));
+      }
+
+      @Override
+      public void jumpToIndex(int destination)
+      {
+         checkForComodification();
+         if (destination < 0) destination = 0;
+         if (destination > size) destination = size;
+         lastReturned = null;
+         if (destination == size) nextNode = null;
+         else if (nextNode != null && Math.abs(destination - nextIndex) <= Math.min(destination, size - 1 - destination))
+         {
+            for (int i = nextIndex; i < destination; i++){ nextNode = nextNode.getNext(); }
+            for (int i = nextIndex; i > destination; i--){ nextNode = nextNode.getPrev(); }
+         }
+         else nextNode = getNode(destination);
+         nextIndex = destination;
+      }
+
+      /**
+       * If the nodes are shared with a snapshot then they are copied and this iterator moves to the copied nodes.
+       */
+      protected void ensureIteratorExclusive()
+      {
+         if (sharedChain == null) return;
+         int lastReturnedIndex = (lastReturned == nextNode) ? nextIndex : nextIndex - 1;
+         ensureExclusive();
+         nextNode = (nextIndex == size) ? null : getNode(nextIndex);
+         if (lastReturned != null) lastReturned = getNode(lastReturnedIndex);
+         expectedModCount = modCount;
+      }
+
+      protected void checkForComodification()
+      {
+         if (modCount != expectedModCount) throw new ConcurrentModificationException();
+      }
+   }
+
+   /**
+    * The spliterator is late binding (it starts at the first node when first used) and fail fast.
+    * It splits by walking to the middle node so that a parallel stream can use every core.
+    */
+   @Override
+   public Spliterator<E> spliterator()
+   {
+      return new NodeSpliterator<E>(this);
+   }
+
+   /**
+    * Walks the nodes directly instead of using an iterator. Each split covers an exact number of nodes.
+    */
+   protected static class NodeSpliterator<E> implements Spliterator<E>
+   {
+      /**
+       * Splitting a smaller range isn't worth walking to the middle
+       */
+      protected static final int MIN_SPLIT_SIZE = 1024;
+
+      protected final LinkedList<E> list;
+      /**
+       * The next node to be returned or null if not yet bound
+       */
+      protected DequeNode<E> current;
+      /**
+       * The number of nodes left to return or -1 if not yet bound
+       */
+      protected int remaining;
+      protected int expectedModCount;
+
+      protected NodeSpliterator(LinkedList<E> list)
+      {
+         this.list = list;
+         this.remaining = -1;
+      }
+
+      protected NodeSpliterator(LinkedList<E> list, DequeNode<E> current, int remaining, int expectedModCount)
+      {
+         this.list = list;
+         this.current = current;
+         this.remaining = remaining;
+         this.expectedModCount = expectedModCount;
+      }
+
+      protected void bind()
+      {
+         if (remaining != -1) return;
+         current = list.first;
+         remaining = list.size;
+         expectedModCount = list.modCount;
+      }
+
+      @Override
+      public Spliterator<E> trySplit()
+      {
+         bind();
+         if (remaining < MIN_SPLIT_SIZE) return null;
+         int half = remaining >>> 1;
+         DequeNode<E> prefixStart = current;
+         for (int i = 0; i < half; i++){ current = current.getNext(); }
+         remaining -= half;
+         return new NodeSpliterator<E>(list, prefixStart, half, expectedModCount);
+      }
+
+      @Override
+      public boolean tryAdvance(Consumer<? super E> action)
+      {
+         if (action == null) throw new NullPointerException();
+         bind();
+         if (remaining == 0) return false;
+         E data = current.getData();
+         current = current.getNext();
+         remaining--;
+         action.accept(data);
+         if (list.modCount != expectedModCount) throw new ConcurrentModificationException();
+         return true;
+      }
+
+      @Override
+      public void forEachRemaining(Consumer<? super E> action)
+      {
+         if (action == null) throw new NullPointerException();
+         bind();
+         DequeNode<E> cursor = current;
+         for (int i = remaining; i > 0; i--)
+         {
+            action.accept(cursor.getData());
+            cursor = cursor.getNext();
+         }
+         current = cursor;
+         remaining = 0;
+         if (list.modCount != expectedModCount) throw new ConcurrentModificationException();
+      }
+
+      @Override
+      public long estimateSize()
+      {
+         bind();
+         return remaining;
+      }
+
+      @Override
+      public int characteristics()
+      {
+         return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+      }
    }
 
    //uses super.isEmpty() in AbstractCollection
    //uses super.containsAll() in AbstractCollection
-   //uses super.removeAll(Collection<?>) in AbstractCollection
-   //uses super.retainAll(Collection<?>) in AbstractCollection
-   //uses super.remove(Object) in AbstractCollection
    //uses super.contains(Object) in AbstractCollection
    //uses super.iterator() in AbstractSequentialList
    //uses super.indexOf(Object) from AbstractList
-   //JRE LinkedList also has spliterator()
 
 }
@@ -0,0 +1,516 @@
+package com.github.skySpiral7.java.dataStructures;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * <p>A thread safe deque where adding and removing at either end is lock free (a thread is never blocked by another
+ * thread and some thread always makes progress). This is the CAS based deque by Maged Michael: the first node, last
+ * node, and status are swapped together (as a single immutable anchor) and a push then fixes its neighbor's pointer
+ * in a second step that any thread can finish.</p>
+ *
+ * <p>Elements can only be added or removed at the ends: removing from the middle (such as
+ * {@link #removeFirstOccurrence(Object)} or {@link Iterator#remove()}) is not supported. Null elements are not allowed
+ * since poll returns null when empty. The iterators are weakly consistent (the same as ConcurrentLinkedDeque): they
+ * never throw ConcurrentModificationException and return the elements as they were when created and may or may not
+ * reflect changes made afterward. size() walks the nodes so it is O(n) and only an estimate while being changed.</p>
+ *
+ * <p>Since the list isn't indexed and has no meaningful modCount this isn't a {@link ModCountList}. Use
+ * {@link #toLinkedList()} to get a snapshot that is.</p>
+ *
+ * @param <E> the data type of the deque
+ *
+ * @see LinkedList
+ */
+public class LockFreeDeque<E> extends AbstractCollection<E> implements Deque<E>
+{
+   private static final VarHandle ANCHOR;
+   private static final VarHandle NEXT;
+   private static final VarHandle PREV;
+
+   static
+   {
+      try
+      {
+         final MethodHandles.Lookup lookup = MethodHandles.lookup();
+         ANCHOR = lookup.findVarHandle(LockFreeDeque.class, "anchor", Anchor.class);
+         NEXT = lookup.findVarHandle(Node.class, "next", Node.class);
+         PREV = lookup.findVarHandle(Node.class, "prev", Node.class);
+      }
+      catch (final ReflectiveOperationException reflectiveOperationException)
+      {
+         throw new ExceptionInInitializerError(reflectiveOperationException);
+      }
+   }
+
+   private static final Anchor<?> EMPTY = new Anchor<>(null, null, Status.STABLE);
+
+   @SuppressWarnings("unchecked")
+   private volatile Anchor<E> anchor = (Anchor<E>) EMPTY;
+
+   /**
+    * Constructs an empty deque.
+    */
+   public LockFreeDeque(){}
+
+   /**
+    * Constructs a deque containing the elements of the specified collection in the order they are returned by the
+    * collection's iterator.
+    */
+   public LockFreeDeque(final Collection<? extends E> initialElements)
+   {
+      this();
+      addAll(initialElements);
+   }
+
+   @Override
+   public void addFirst(final E newElement)
+   {
+      offerFirst(newElement);
+   }
+
+   @Override
+   public void addLast(final E newElement)
+   {
+      offerLast(newElement);
+   }
+
+   /**
+    * @return true (there is no capacity limit)
+    */
+   @Override
+   public boolean offerFirst(final E newElement)
+   {
+      final Node<E> newNode = new Node<>(Objects.requireNonNull(newElement));
+      while (true)
+      {
+         final Anchor<E> current = anchor;
+         if (current.first == null)
+         {
+            if (compareAndSetAnchor(current, new Anchor<>(newNode, newNode, Status.STABLE))) return true;
+         }
+         else if (current.status == Status.STABLE)
+         {
+            newNode.next = current.first;
+            final Anchor<E> pushed = new Anchor<>(newNode, current.last, Status.PUSHING_FIRST);
+            if (compareAndSetAnchor(current, pushed))
+            {
+               stabilizeFirst(pushed);
+               return true;
+            }
+         }
+         else stabilize(current);
+      }
+   }
+
+   /**
+    * @return true (there is no capacity limit)
+    */
+   @Override
+   public boolean offerLast(final E newElement)
+   {
+      final Node<E> newNode = new Node<>(Objects.requireNonNull(newElement));
+      while (true)
+      {
+         final Anchor<E> current = anchor;
+         if (current.last == null)
+         {
+            if (compareAndSetAnchor(current, new Anchor<>(newNode, newNode, Status.STABLE))) return true;
+         }
+         else if (current.status == Status.STABLE)
+         {
+            newNode.prev = current.last;
+            final Anchor<E> pushed = new Anchor<>(current.first, newNode, Status.PUSHING_LAST);
+            if (compareAndSetAnchor(current, pushed))
+            {
+               stabilizeLast(pushed);
+               return true;
+            }
+         }
+         else stabilize(current);
+      }
+   }
+
+   @Override
+   public E pollFirst()
+   {
+      while (true)
+      {
+         final Anchor<E> current = anchor;
+         if (current.first == null) return null;
+         if (current.first == current.last)
+         {
+            if (compareAndSetAnchor(current, emptyAnchor())) return current.first.data;
+         }
+         else if (current.status == Status.STABLE)
+         {
+            final Node<E> newFirst = current.first.next;
+            if (compareAndSetAnchor(current, new Anchor<>(newFirst, current.last, Status.STABLE)))
+            {
+               //so that the removed node isn't reachable (else every removed node would be kept).
+               //CAS since a push might have already linked newFirst back to a new node
+               PREV.compareAndSet(newFirst, current.first, null);
+               return current.first.data;
+            }
+         }
+         else stabilize(current);
+      }
+   }
+
+   @Override
+   public E pollLast()
+   {
+      while (true)
+      {
+         final Anchor<E> current = anchor;
+         if (current.last == null) return null;
+         if (current.first == current.last)
+         {
+            if (compareAndSetAnchor(current, emptyAnchor())) return current.last.data;
+         }
+         else if (current.status == Status.STABLE)
+         {
+            final Node<E> newLast = current.last.prev;
+            if (compareAndSetAnchor(current, new Anchor<>(current.first, newLast, Status.STABLE)))
+            {
+               //the same as pollFirst
+               NEXT.compareAndSet(newLast, current.last, null);
+               return current.last.data;
+            }
+         }
+         else stabilize(current);
+      }
+   }
+
+   @Override
+   public E removeFirst()
+   {
+      final E result = pollFirst();
+      if (result == null) throw new NoSuchElementException("The deque is empty");
+      return result;
+   }
+
+   @Override
+   public E removeLast()
+   {
+      final E result = pollLast();
+      if (result == null) throw new NoSuchElementException("The deque is empty");
+      return result;
+   }
+
+   @Override
+   public E peekFirst()
+   {
+      final Node<E> first = anchor.first;
+      if (first == null) return null;
+      return first.data;
+   }
+
+   @Override
+   public E peekLast()
+   {
+      final Node<E> last = anchor.last;
+      if (last == null) return null;
+      return last.data;
+   }
+
+   @Override
+   public E getFirst()
+   {
+      final E result = peekFirst();
+      if (result == null) throw new NoSuchElementException("The deque is empty");
+      return result;
+   }
+
+   @Override
+   public E getLast()
+   {
+      final E result = peekLast();
+      if (result == null) throw new NoSuchElementException("The deque is empty");
+      return result;
+   }
+
+   /**
+    * @throws UnsupportedOperationException always since only the ends can be removed
+    */
+   @Override
+   public boolean removeFirstOccurrence(final Object elementToRemove)
+   {
+      throw new UnsupportedOperationException("Only the first and last elements can be removed");
+   }
+
+   /**
+    * @throws UnsupportedOperationException always since only the ends can be removed
+    */
+   @Override
+   public boolean removeLastOccurrence(final Object elementToRemove)
+   {
+      throw new UnsupportedOperationException("Only the first and last elements can be removed");
+   }
+
+   /**
+    * @throws UnsupportedOperationException always since only the ends can be removed
+    */
+   @Override
+   public boolean remove(final Object elementToRemove)
+   {
+      return removeFirstOccurrence(elementToRemove);
+   }
+
+   @Override
+   public boolean add(final E newElement)
+   {
+      return offerLast(newElement);
+   }
+
+   @Override
+   public boolean offer(final E newElement)
+   {
+      return offerLast(newElement);
+   }
+
+   @Override
+   public E remove()
+   {
+      return removeFirst();
+   }
+
+   @Override
+   public E poll()
+   {
+      return pollFirst();
+   }
+
+   @Override
+   public E element()
+   {
+      return getFirst();
+   }
+
+   @Override
+   public E peek()
+   {
+      return peekFirst();
+   }
+
+   @Override
+   public void push(final E newElement)
+   {
+      addFirst(newElement);
+   }
+
+   @Override
+   public E pop()
+   {
+      return removeFirst();
+   }
+
+   @Override
+   public boolean isEmpty()
+   {
+      return anchor.first == null;
+   }
+
+   /**
+    * Removes the elements one at a time (from the first) so elements added at the same time might not be removed.
+    */
+   @Override
+   public void clear()
+   {
+      while (pollFirst() != null){}
+   }
+
+   /**
+    * O(n) since the nodes are counted.
+    */
+   @Override
+   public int size()
+   {
+      int count = 0;
+      for (final E ignored : this)
+      {
+         count++;
+         if (count == Integer.MAX_VALUE) break;
+      }
+      return count;
+   }
+
+   /**
+    * @return a weakly consistent iterator which doesn't support remove
+    */
+   @Override
+   public Iterator<E> iterator()
+   {
+      final Anchor<E> snapshot = stableAnchor();
+      return new NodeIterator<>(snapshot.first, snapshot.last, true);
+   }
+
+   /**
+    * @return a weakly consistent iterator which doesn't support remove
+    */
+   @Override
+   public Iterator<E> descendingIterator()
+   {
+      final Anchor<E> snapshot = stableAnchor();
+      return new NodeIterator<>(snapshot.last, snapshot.first, false);
+   }
+
+   /**
+    * @return a copy of the elements (in the same weakly consistent way as iterator)
+    */
+   public LinkedList<E> toLinkedList()
+   {
+      final LinkedList<E> result = new LinkedList<>();
+      for (final E element : this){ result.add(element); }
+      return result;
+   }
+
+   @SuppressWarnings("unchecked")
+   private Anchor<E> emptyAnchor()
+   {
+      return (Anchor<E>) EMPTY;
+   }
+
+   private boolean compareAndSetAnchor(final Anchor<E> expected, final Anchor<E> newAnchor)
+   {
+      return ANCHOR.compareAndSet(this, expected, newAnchor);
+   }
+
+   /**
+    * @return the current anchor after finishing any push that is in progress
+    */
+   private Anchor<E> stableAnchor()
+   {
+      while (true)
+      {
+         final Anchor<E> current = anchor;
+         if (current.status == Status.STABLE) return current;
+         stabilize(current);
+      }
+   }
+
+   private void stabilize(final Anchor<E> current)
+   {
+      if (current.status == Status.PUSHING_FIRST) stabilizeFirst(current);
+      else stabilizeLast(current);
+   }
+
+   /**
+    * Links the node after the newly pushed first node back to it then marks the anchor as stable.
+    * Any thread can do this so that a push doesn't block other threads.
+    */
+   private void stabilizeFirst(final Anchor<E> current)
+   {
+      final Node<E> pushed = current.first;
+      final Node<E> nextNode = pushed.next;
+      //null if pushed has since become the last node (and its next was cleared) so another thread already finished
+      if (nextNode == null) return;
+      final Node<E> nextPrev = nextNode.prev;
+      if (nextPrev != pushed)
+      {
+         //if the anchor changed then another thread already finished
+         if (anchor != current) return;
+         if (!PREV.compareAndSet(nextNode, nextPrev, pushed)) return;
+      }
+      compareAndSetAnchor(current, new Anchor<>(current.first, current.last, Status.STABLE));
+   }
+
+   /**
+    * Links the node before the newly pushed last node forward to it then marks the anchor as stable.
+    * Any thread can do this so that a push doesn't block other threads.
+    */
+   private void stabilizeLast(final Anchor<E> current)
+   {
+      final Node<E> pushed = current.last;
+      final Node<E> prevNode = pushed.prev;
+      if (prevNode == null) return;  //the same as stabilizeFirst
+      final Node<E> prevNext = prevNode.next;
+      if (prevNext != pushed)
+      {
+         //if the anchor changed then another thread already finished
+         if (anchor != current) return;
+         if (!NEXT.compareAndSet(prevNode, prevNext, pushed)) return;
+      }
+      compareAndSetAnchor(current, new Anchor<>(current.first, current.last, Status.STABLE));
+   }
+
+   private enum Status
+   {
+      STABLE, PUSHING_FIRST, PUSHING_LAST
+   }
+
+   /**
+    * Immutable so that the ends and status can be swapped together by a single CAS.
+    * Both ends are null if empty.
+    */
+   private static final class Anchor<E>
+   {
+      private final Node<E> first;
+      private final Node<E> last;
+      private final Status status;
+
+      private Anchor(final Node<E> first, final Node<E> last, final Status status)
+      {
+         this.first = first;
+         this.last = last;
+         this.status = status;
+      }
+   }
+
+   /**
+    * The same shape as DequeNode except the data is final and the pointers are changed by CAS.
+    * A removed node keeps its pointers so that an iterator on it can continue. However the new end's pointer
+    * back to the removed node is cleared so that removed nodes aren't reachable from the deque.
+    */
+   private static final class Node<E>
+   {
+      private final E data;
+      private volatile Node<E> prev;
+      private volatile Node<E> next;
+
+      private Node(final E data)
+      {
+         this.data = data;
+      }
+   }
+
+   /**
+    * Follows the pointers from start until end. Stops early at a null pointer (when the end was removed and
+    * replaced while iterating).
+    */
+   private static final class NodeIterator<E> implements Iterator<E>
+   {
+      private final Node<E> end;
+      private final boolean isForward;
+      private Node<E> nextNode;
+
+      private NodeIterator(final Node<E> start, final Node<E> end, final boolean isForward)
+      {
+         this.nextNode = start;
+         this.end = end;
+         this.isForward = isForward;
+      }
+
+      @Override
+      public boolean hasNext()
+      {
+         return nextNode != null;
+      }
+
+      @Override
+      public E next()
+      {
+         if (nextNode == null) throw new NoSuchElementException();
+         final Node<E> current = nextNode;
+         if (current == end) nextNode = null;
+         else nextNode = isForward ? current.next : current.prev;
+         return current.data;
+      }
+   }
+}
@@ -0,0 +1,406 @@
+package com.github.skySpiral7.java.dataStructures;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+import com.github.skySpiral7.java.Copyable;
+
+/**
+ * <p>A linked list of long values without boxing. Instead of a node object per element the values and links are stored
+ * in parallel arrays (long[] values, int[] next, int[] prev) and each link is an index into those arrays. A removed slot
+ * is put on a free list and reused by the next add so a list that has as many adds as removes doesn't allocate.</p>
+ *
+ * <p>It has the same shape as {@link LinkedList}: deque methods at both ends are O(1) and positional methods walk
+ * from the closer end. Since a removed long can't be null the poll methods don't exist: the remove and get methods
+ * throw NoSuchElementException when empty. Removing by index is removeAt since remove(long) would be ambiguous.</p>
+ *
+ * <p>The links and free list are in {@link SlotLinkedList} which is shared with {@link IntLinkedList}. The methods
+ * that use the values are the same in both (other than the type) so change them together.</p>
+ *
+ * @see LinkedList
+ * @see IntLinkedList
+ */
+public class LongLinkedList extends SlotLinkedList implements Copyable<LongLinkedList>
+{
+   private static final long serialVersionUID = 1L;
+   /**
+    * The number of values that writeTo and readFrom convert at a time
+    */
+   private static final int CODEC_BATCH_SIZE = 8 * 1024;
+
+   protected transient long[] values;
+
+   /**
+    * Constructs an empty list.
+    */
+   public LongLinkedList()
+   {
+      this(DEFAULT_CAPACITY);
+   }
+
+   /**
+    * @param initialCapacity the number of elements that can be added before the arrays grow
+    */
+   public LongLinkedList(final int initialCapacity)
+   {
+      super(initialCapacity);
+      values = new long[initialCapacity];
+   }
+
+   /**
+    * A factory instead of a constructor so that a single value can't be confused with the initial capacity.
+    *
+    * @return a new list containing the values in the same order
+    */
+   public static LongLinkedList of(final long... initialValues)
+   {
+      final LongLinkedList result = new LongLinkedList(initialValues.length);
+      for (final long value : initialValues){ result.addLast(value); }
+      return result;
+   }
+
+   public void addFirst(final long newValue)
+   {
+      linkAfter(NONE, newValue);
+   }
+
+   public void addLast(final long newValue)
+   {
+      linkAfter(last, newValue);
+   }
+
+   /**
+    * The same as addLast.
+    *
+    * @return true
+    */
+   public boolean add(final long newValue)
+   {
+      linkAfter(last, newValue);
+      return true;
+   }
+
+   public void add(final int insertionIndex, final long newValue)
+   {
+      if (insertionIndex == size) addLast(newValue);
+      else linkAfter(prev[slotOf(insertionIndex)], newValue);
+   }
+
+   public long removeFirst()
+   {
+      if (size == 0) throw new NoSuchElementException("The list is empty");
+      return unlink(first);
+   }
+
+   public long removeLast()
+   {
+      if (size == 0) throw new NoSuchElementException("The list is empty");
+      return unlink(last);
+   }
+
+   /**
+    * @return the value that was removed
+    */
+   public long removeAt(final int index)
+   {
+      return unlink(slotOf(index));
+   }
+
+   /**
+    * @return true if the value was found (and removed)
+    */
+   public boolean removeFirstOccurrence(final long valueToRemove)
+   {
+      for (int slot = first; slot != NONE; slot = next[slot])
+      {
+         if (values[slot] == valueToRemove)
+         {
+            unlink(slot);
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * @return true if the value was found (and removed)
+    */
+   public boolean removeLastOccurrence(final long valueToRemove)
+   {
+      for (int slot = last; slot != NONE; slot = prev[slot])
+      {
+         if (values[slot] == valueToRemove)
+         {
+            unlink(slot);
+            return true;
+         }
+      }
+      return false;
+   }
+
+   public long getFirst()
+   {
+      if (size == 0) throw new NoSuchElementException("The list is empty");
+      return values[first];
+   }
+
+   public long getLast()
+   {
+      if (size == 0) throw new NoSuchElementException("The list is empty");
+      return values[last];
+   }
+
+   public long get(final int index)
+   {
+      return values[slotOf(index)];
+   }
+
+   /**
+    * @return the previous value
+    */
+   public long set(final int index, final long newValue)
+   {
+      final int slot = slotOf(index);
+      final long oldValue = values[slot];
+      values[slot] = newValue;
+      //doesn't increment modCount because there was no structural change
+      return oldValue;
+   }
+
+   /**
+    * @return the index of the value or LinkedList.ELEMENT_NOT_FOUND
+    */
+   public int indexOf(final long valueToFind)
+   {
+      int index = 0;
+      for (int slot = first; slot != NONE; slot = next[slot])
+      {
+         if (values[slot] == valueToFind) return index;
+         index++;
+      }
+      return LinkedList.ELEMENT_NOT_FOUND;
+   }
+
+   /**
+    * @return the index of the value or LinkedList.ELEMENT_NOT_FOUND
+    */
+   public int lastIndexOf(final long valueToFind)
+   {
+      int index = size - 1;
+      for (int slot = last; slot != NONE; slot = prev[slot])
+      {
+         if (values[slot] == valueToFind) return index;
+         index--;
+      }
+      return LinkedList.ELEMENT_NOT_FOUND;
+   }
+
+   public boolean contains(final long valueToFind)
+   {
+      return indexOf(valueToFind) != LinkedList.ELEMENT_NOT_FOUND;
+   }
+
+   /**
+    * Shrinks the arrays to the size of the list. The nodes are also rearranged to be in order in the arrays which makes
+    * iterating faster after many removes and inserts.
+    */
+   public void trimToSize()
+   {
+      values = toArray();
+      relinkInOrder();
+   }
+
+   public long[] toArray()
+   {
+      final long[] result = new long[size];
+      int index = 0;
+      for (int slot = first; slot != NONE; slot = next[slot])
+      {
+         result[index] = values[slot];
+         index++;
+      }
+      return result;
+   }
+
+   /**
+    * @return a fail fast iterator that supports remove
+    */
+   public PrimitiveIterator.OfLong iterator()
+   {
+      return new SlotIterator(true);
+   }
+
+   /**
+    * @return a fail fast iterator (from last to first) that supports remove
+    */
+   public PrimitiveIterator.OfLong descendingIterator()
+   {
+      return new SlotIterator(false);
+   }
+
+   public LongStream stream()
+   {
+      return StreamSupport.longStream(Spliterators.spliterator(iterator(), size, Spliterator.ORDERED), false);
+   }
+
+   /**
+    * @return a new list with the same values. The arrays are only as large as needed and in order.
+    */
+   @Override
+   public LongLinkedList copy()
+   {
+      return of(toArray());
+   }
+
+   /**
+    * Writes a compact binary format: the size (int) then each value in order. The values are converted to bytes
+    * a batch at a time instead of one call per value.
+    *
+    * @see #readFrom(DataInput)
+    */
+   public void writeTo(final DataOutput output) throws IOException
+   {
+      output.writeInt(size);
+      final byte[] buffer = new byte[Math.min(size, CODEC_BATCH_SIZE) * Long.BYTES];
+      final LongBuffer view = ByteBuffer.wrap(buffer).asLongBuffer();
+      int slot = first;
+      int remaining = size;
+      while (remaining > 0)
+      {
+         final int batchSize = Math.min(remaining, CODEC_BATCH_SIZE);
+         view.clear();
+         for (int i = 0; i < batchSize; i++)
+         {
+            view.put(values[slot]);
+            slot = next[slot];
+         }
+         output.write(buffer, 0, batchSize * Long.BYTES);
+         remaining -= batchSize;
+      }
+   }
+
+   /**
+    * @return a new list that was written by {@link #writeTo(DataOutput)}
+    */
+   public static LongLinkedList readFrom(final DataInput input) throws IOException
+   {
+      final int size = input.readInt();
+      if (size < 0) throw new InvalidObjectException("Negative size: " + size);
+      //the arrays grow as values are read so that a corrupt size can't allocate everything at once
+      final LongLinkedList result = new LongLinkedList(Math.min(size, CODEC_BATCH_SIZE));
+      final byte[] buffer = new byte[Math.min(size, CODEC_BATCH_SIZE) * Long.BYTES];
+      final LongBuffer view = ByteBuffer.wrap(buffer).asLongBuffer();
+      int remaining = size;
+      while (remaining > 0)
+      {
+         final int batchSize = Math.min(remaining, CODEC_BATCH_SIZE);
+         input.readFully(buffer, 0, batchSize * Long.BYTES);
+         view.clear();
+         for (int i = 0; i < batchSize; i++){ result.addLast(view.get()); }
+         remaining -= batchSize;
+      }
+      return result;
+   }
+
+   /**
+    * @serialData the same as {@link #writeTo(DataOutput)}
+    */
+   private void writeObject(final ObjectOutputStream out) throws IOException
+   {
+      out.defaultWriteObject();
+      writeTo(out);
+   }
+
+   private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException
+   {
+      in.defaultReadObject();
+      final LongLinkedList read = readFrom(in);
+      values = read.values;
+      copyLinks(read);
+   }
+
+   @Override
+   public boolean equals(final Object other)
+   {
+      if (this == other) return true;
+      if (!(other instanceof LongLinkedList)) return false;
+      final LongLinkedList otherList = (LongLinkedList) other;
+      if (size != otherList.size) return false;
+      int otherSlot = otherList.first;
+      for (int slot = first; slot != NONE; slot = next[slot])
+      {
+         if (values[slot] != otherList.values[otherSlot]) return false;
+         otherSlot = otherList.next[otherSlot];
+      }
+      return true;
+   }
+
+   /**
+    * The same as List.hashCode of the boxed values.
+    */
+   @Override
+   public int hashCode()
+   {
+      int hashCode = 1;
+      for (int slot = first; slot != NONE; slot = next[slot]){ hashCode = 31 * hashCode + Long.hashCode(values[slot]); }
+      return hashCode;
+   }
+
+   @Override
+   public String toString()
+   {
+      return Arrays.toString(toArray());
+   }
+
+   /**
+    * @param prevSlot the new node comes after this or first if NONE
+    */
+   protected void linkAfter(final int prevSlot, final long newValue)
+   {
+      //not a single statement since values is read before linkSlotAfter (which might replace it) is called
+      final int slot = linkSlotAfter(prevSlot);
+      values[slot] = newValue;
+   }
+
+   /**
+    * @return the value of the removed node
+    */
+   protected long unlink(final int slot)
+   {
+      unlinkSlot(slot);
+      return values[slot];
+   }
+
+   @Override
+   protected void resizeValues(final int newCapacity)
+   {
+      values = Arrays.copyOf(values, newCapacity);
+   }
+
+   private final class SlotIterator extends SlotCursor implements PrimitiveIterator.OfLong
+   {
+      private SlotIterator(final boolean isForward)
+      {
+         super(isForward);
+      }
+
+      @Override
+      public long nextLong()
+      {
+         return values[nextSlot()];
+      }
+   }
+}
@@ -0,0 +1,249 @@
+package com.github.skySpiral7.java.dataStructures;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+import com.github.skySpiral7.java.exception.ListIndexOutOfBoundsException;
+
+/**
+ * The links of {@link IntLinkedList} and {@link LongLinkedList}. A node is a slot: an index into the next and prev arrays
+ * (and the subclass's values array which is always the same length). A removed slot is put on a free list and reused by
+ * the next add. Only the values are different between the subclasses so everything else is here.
+ */
+abstract class SlotLinkedList implements Serializable
+{
+   private static final long serialVersionUID = 1L;
+   /**
+    * The link value that means there is no node
+    */
+   protected static final int NONE = -1;
+   protected static final int DEFAULT_CAPACITY = 16;
+   private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+   protected transient int[] next;
+   protected transient int[] prev;
+   /**
+    * The slot of the first node or NONE if empty
+    */
+   protected transient int first = NONE;
+   /**
+    * The slot of the last node or NONE if empty
+    */
+   protected transient int last = NONE;
+   /**
+    * The first slot of the free list (linked by next) or NONE
+    */
+   protected transient int free = NONE;
+   /**
+    * Every slot at or after this has never been used
+    */
+   protected transient int used;
+   protected transient int size;
+   protected transient int modCount;
+
+   /**
+    * @param initialCapacity the number of elements that can be added before the arrays grow
+    */
+   protected SlotLinkedList(final int initialCapacity)
+   {
+      if (initialCapacity < 0) throw new IllegalArgumentException("initialCapacity can't be negative: " + initialCapacity);
+      next = new int[initialCapacity];
+      prev = new int[initialCapacity];
+   }
+
+   public int size()
+   {
+      return size;
+   }
+
+   public boolean isEmpty()
+   {
+      return size == 0;
+   }
+
+   public int getModCount()
+   {
+      return modCount;
+   }
+
+   /**
+    * Keeps the arrays so that adding again doesn't allocate.
+    */
+   public void clear()
+   {
+      first = last = free = NONE;
+      used = 0;
+      size = 0;
+      modCount++;
+   }
+
+   /**
+    * Called by the subclass to grow its values array when the links grow.
+    */
+   protected abstract void resizeValues(int newCapacity);
+
+   /**
+    * Links slots 0 through size-1 in order with arrays that are exactly size long. The subclass has already moved the
+    * values into those slots.
+    */
+   protected void relinkInOrder()
+   {
+      next = new int[size];
+      prev = new int[size];
+      for (int slot = 0; slot < size; slot++)
+      {
+         prev[slot] = slot - 1;
+         next[slot] = slot + 1;
+      }
+      if (size == 0) first = last = NONE;
+      else
+      {
+         first = 0;
+         last = size - 1;
+         next[last] = NONE;
+      }
+      free = NONE;
+      used = size;
+      modCount++;
+   }
+
+   /**
+    * Used by readObject to take the links of a list that was read.
+    */
+   protected void copyLinks(final SlotLinkedList other)
+   {
+      next = other.next;
+      prev = other.prev;
+      first = other.first;
+      last = other.last;
+      free = other.free;
+      used = other.used;
+      size = other.size;
+   }
+
+   /**
+    * @return the slot of the index
+    */
+   protected int slotOf(final int index)
+   {
+      if (index < 0 || index >= size) throw new ListIndexOutOfBoundsException(index, size);
+      if (index < (size >> 1))
+      {
+         int slot = first;
+         for (int i = 0; i < index; i++){ slot = next[slot]; }
+         return slot;
+      }
+      int slot = last;
+      for (int i = size - 1; i > index; i--){ slot = prev[slot]; }
+      return slot;
+   }
+
+   /**
+    * The caller sets the value of the new slot.
+    *
+    * @param prevSlot the new node comes after this or first if NONE
+    *
+    * @return the slot of the new node
+    */
+   protected int linkSlotAfter(final int prevSlot)
+   {
+      if (size == Integer.MAX_VALUE)
+         throw new IllegalStateException("Capacity violating. The maximum number of elements can't exceed Integer.MAX_VALUE.");
+      final int slot = allocateSlot();
+      final int nextSlot = (prevSlot == NONE) ? first : next[prevSlot];
+      prev[slot] = prevSlot;
+      next[slot] = nextSlot;
+      if (prevSlot == NONE) first = slot;
+      else next[prevSlot] = slot;
+      if (nextSlot == NONE) last = slot;
+      else prev[nextSlot] = slot;
+      size++;
+      modCount++;
+      return slot;
+   }
+
+   /**
+    * The value stays in the slot until it is reused so the caller can still read it.
+    */
+   protected void unlinkSlot(final int slot)
+   {
+      final int prevSlot = prev[slot];
+      final int nextSlot = next[slot];
+      if (prevSlot == NONE) first = nextSlot;
+      else next[prevSlot] = nextSlot;
+      if (nextSlot == NONE) last = prevSlot;
+      else prev[nextSlot] = prevSlot;
+      next[slot] = free;
+      free = slot;
+      size--;
+      modCount++;
+   }
+
+   private int allocateSlot()
+   {
+      if (free != NONE)
+      {
+         final int slot = free;
+         free = next[slot];
+         return slot;
+      }
+      if (used == next.length)
+      {
+         //the free list is empty so every slot is in use
+         if (used >= MAX_CAPACITY)
+            throw new IllegalStateException("Capacity violating. The maximum number of elements can't exceed " + MAX_CAPACITY);
+         final int newCapacity = (int) Math.min(MAX_CAPACITY, Math.max(DEFAULT_CAPACITY, next.length * 2L));
+         resizeValues(newCapacity);
+         next = Arrays.copyOf(next, newCapacity);
+         prev = Arrays.copyOf(prev, newCapacity);
+      }
+      final int slot = used;
+      used++;
+      return slot;
+   }
+
+   /**
+    * The part of a fail fast iterator that walks the slots. The subclass's iterator returns the value of nextSlot().
+    */
+   protected abstract class SlotCursor
+   {
+      private final boolean isForward;
+      private int nextSlot;
+      private int lastReturnedSlot = NONE;
+      private int expectedModCount = modCount;
+
+      protected SlotCursor(final boolean isForward)
+      {
+         this.isForward = isForward;
+         this.nextSlot = isForward ? first : last;
+      }
+
+      public boolean hasNext()
+      {
+         return nextSlot != NONE;
+      }
+
+      /**
+       * @return the slot that the iterator moved past
+       */
+      protected int nextSlot()
+      {
+         if (modCount != expectedModCount) throw new ConcurrentModificationException();
+         if (nextSlot == NONE) throw new NoSuchElementException();
+         lastReturnedSlot = nextSlot;
+         nextSlot = isForward ? next[nextSlot] : prev[nextSlot];
+         return lastReturnedSlot;
+      }
+
+      public void remove()
+      {
+         if (lastReturnedSlot == NONE) throw new IllegalStateException();
+         if (modCount != expectedModCount) throw new ConcurrentModificationException();
+         unlinkSlot(lastReturnedSlot);
+         lastReturnedSlot = NONE;
+         expectedModCount = modCount;
+      }
+   }
+}
@@ -0,0 +1,824 @@
+package com.github.skySpiral7.java.dataStructures;
+
+import java.util.AbstractSequentialList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import com.github.skySpiral7.java.Copyable;
+import com.github.skySpiral7.java.exception.ListIndexOutOfBoundsException;
+import com.github.skySpiral7.java.iterators.DescendingListIterator;
+
+/**
+ * <p>A linked list where each node (chunk) holds an array of up to chunkCapacity elements instead of a single element.
+ * This has far less memory overhead than {@link LinkedList} and iterating is mostly reading arrays so it is close
+ * to the speed of ArrayList. toArray and addAll copy an entire chunk at a time.</p>
+ *
+ * <p>Adding or removing at either end is O(1) (at most chunkCapacity elements are shifted). Adding or removing in the
+ * middle (once found) also only shifts elements within one chunk: a full chunk is split in half and a chunk that is
+ * less than half full is merged with a neighbor. Finding an index skips entire chunks so it is O(size/chunkCapacity).</p>
+ *
+ * @param <E> the data type of the list
+ *
+ * @see LinkedList
+ */
+public class UnrolledLinkedList<E> extends AbstractSequentialList<E> implements Deque<E>, ModCountList<E>, Copyable<UnrolledLinkedList<E>>
+{
+   public static final int DEFAULT_CHUNK_CAPACITY = 64;
+
+   protected final int chunkCapacity;
+   protected int size;
+   /**
+    * null if the list is empty. Every chunk has at least 1 element.
+    */
+   protected Chunk first;
+   /**
+    * null if the list is empty. If there is only 1 chunk then first == last.
+    */
+   protected Chunk last;
+
+   public UnrolledLinkedList()
+   {
+      this(DEFAULT_CHUNK_CAPACITY);
+   }
+
+   /**
+    * @param chunkCapacity the maximum number of elements in each chunk. A larger capacity uses less memory but
+    *                      shifts more elements when adding or removing in the middle.
+    */
+   public UnrolledLinkedList(final int chunkCapacity)
+   {
+      if (chunkCapacity < 1) throw new IllegalArgumentException("chunkCapacity must be at least 1 but was " + chunkCapacity);
+      this.chunkCapacity = chunkCapacity;
+   }
+
+   /**
+    * Constructs a list containing the elements of the specified collection in the order they are returned by the
+    * collection's iterator.
+    */
+   public UnrolledLinkedList(final Collection<? extends E> initialElements)
+   {
+      this(DEFAULT_CHUNK_CAPACITY);
+      addAll(initialElements);
+   }
+
+   public int getChunkCapacity()
+   {
+      return chunkCapacity;
+   }
+
+   @Override
+   public void addFirst(final E newElement)
+   {
+      if (!offerFirst(newElement))
+         throw new IllegalStateException("Capacity violating. The maximum number of elements can't exceed Integer.MAX_VALUE.");
+   }
+
+   @Override
+   public void addLast(final E newElement)
+   {
+      if (!offerLast(newElement))
+         throw new IllegalStateException("Capacity violating. The maximum number of elements can't exceed Integer.MAX_VALUE.");
+   }
+
+   @Override
+   public boolean offerFirst(final E newElement)
+   {
+      if (size == Integer.MAX_VALUE) return false;
+      insert(new Cursor(first, 0), newElement);
+      return true;
+   }
+
+   @Override
+   public boolean offerLast(final E newElement)
+   {
+      if (size == Integer.MAX_VALUE) return false;
+      //fast path for the most common case
+      if (last != null && last.count < chunkCapacity)
+      {
+         last.elements[last.count] = newElement;
+         last.count++;
+         size++;
+         modCount++;
+         return true;
+      }
+      insert(endCursor(), newElement);
+      return true;
+   }
+
+   @Override
+   public E removeFirst()
+   {
+      if (isEmpty()) throw new NoSuchElementException("The list is empty");
+      return remove(new Cursor(first, 0));
+   }
+
+   @Override
+   public E removeLast()
+   {
+      if (isEmpty()) throw new NoSuchElementException("The list is empty");
+      return remove(new Cursor(last, last.count - 1));
+   }
+
+   @Override
+   public E pollFirst()
+   {
+      if (isEmpty()) return null;
+      return remove(new Cursor(first, 0));
+   }
+
+   @Override
+   public E pollLast()
+   {
+      if (isEmpty()) return null;
+      return remove(new Cursor(last, last.count - 1));
+   }
+
+   @Override
+   public E getFirst()
+   {
+      if (isEmpty()) throw new NoSuchElementException("The list is empty");
+      return first.get(0);
+   }
+
+   @Override
+   public E getLast()
+   {
+      if (isEmpty()) throw new NoSuchElementException("The list is empty");
+      return last.get(last.count - 1);
+   }
+
+   @Override
+   public E peekFirst()
+   {
+      if (isEmpty()) return null;
+      return first.get(0);
+   }
+
+   @Override
+   public E peekLast()
+   {
+      if (isEmpty()) return null;
+      return last.get(last.count - 1);
+   }
+
+   @Override
+   public boolean removeFirstOccurrence(final Object elementToRemove)
+   {
+      final Iterator<E> iterator = iterator();
+      while (iterator.hasNext())
+      {
+         if (Objects.equals(elementToRemove, iterator.next()))
+         {
+            iterator.remove();
+            return true;
+         }
+      }
+      return false;
+   }
+
+   @Override
+   public boolean removeLastOccurrence(final Object elementToRemove)
+   {
+      final ListIterator<E> iterator = listIterator(size);
+      while (iterator.hasPrevious())
+      {
+         if (Objects.equals(elementToRemove, iterator.previous()))
+         {
+            iterator.remove();
+            return true;
+         }
+      }
+      return false;
+   }
+
+   @Override
+   public boolean offer(final E newElement)
+   {
+      return offerLast(newElement);
+   }
+
+   @Override
+   public E remove()
+   {
+      return removeFirst();
+   }
+
+   @Override
+   public E poll()
+   {
+      return pollFirst();
+   }
+
+   @Override
+   public E element()
+   {
+      return getFirst();
+   }
+
+   @Override
+   public E peek()
+   {
+      return peekFirst();
+   }
+
+   @Override
+   public void push(final E newElement)
+   {
+      addFirst(newElement);
+   }
+
+   @Override
+   public E pop()
+   {
+      return removeFirst();
+   }
+
+   @Override
+   public Iterator<E> descendingIterator()
+   {
+      return DescendingListIterator.iterateBackwards(listIterator(size));
+   }
+
+   @Override
+   public ListIterator<E> listIterator(final int startingIndex)
+   {
+      rangeCheckForAdd(startingIndex);
+      return new ChunkIterator(startingIndex);
+   }
+
+   @Override
+   public int size()
+   {
+      return size;
+   }
+
+   @Override
+   public boolean add(final E newElement)
+   {
+      return offerLast(newElement);
+   }
+
+   @Override
+   public void add(final int insertionIndex, final E newElement)
+   {
+      rangeCheckForAdd(insertionIndex);
+      if (size == Integer.MAX_VALUE)
+         throw new IllegalStateException("Capacity violating. The maximum number of elements can't exceed Integer.MAX_VALUE.");
+      insert(locate(insertionIndex), newElement);
+   }
+
+   @Override
+   public boolean addAll(final Collection<? extends E> newElements)
+   {
+      return addAll(size, newElements);
+   }
+
+   /**
+    * The elements are copied into new chunks an array at a time. If inserting in the middle then the chunk at
+    * insertionIndex is split once.
+    */
+   @Override
+   public boolean addAll(final int insertionIndex, final Collection<? extends E> newElements)
+   {
+      rangeCheckForAdd(insertionIndex);
+      final Object[] newArray = newElements.toArray();
+      if (newArray.length == 0) return false;
+      if (newArray.length > (Integer.MAX_VALUE - size)) return false;  //must use subtraction to prevent overflow
+
+      final Cursor cursor = locate(insertionIndex);
+      Chunk before;
+      if (cursor.chunk == null) before = null;  //list is empty
+      else if (cursor.offset == 0) before = cursor.chunk.prev;
+      else if (cursor.offset == cursor.chunk.count) before = cursor.chunk;  //end of list
+      else
+      {
+         //split so that the new elements go between the halves
+         final Chunk tail = new Chunk();
+         tail.count = cursor.chunk.count - cursor.offset;
+         System.arraycopy(cursor.chunk.elements, cursor.offset, tail.elements, 0, tail.count);
+         Arrays.fill(cursor.chunk.elements, cursor.offset, cursor.chunk.count, null);
+         cursor.chunk.count = cursor.offset;
+         linkAfter(cursor.chunk, tail);
+         before = cursor.chunk;
+      }
+
+      int copied = 0;
+      if (before != null && before.count < chunkCapacity)
+      {
+         //fill the remaining space so that sequential addAll doesn't leave gaps
+         copied = Math.min(chunkCapacity - before.count, newArray.length);
+         System.arraycopy(newArray, 0, before.elements, before.count, copied);
+         before.count += copied;
+      }
+      while (copied < newArray.length)
+      {
+         final Chunk newChunk = new Chunk();
+         newChunk.count = Math.min(chunkCapacity, newArray.length - copied);
+         System.arraycopy(newArray, copied, newChunk.elements, 0, newChunk.count);
+         copied += newChunk.count;
+         if (before == null) linkFirst(newChunk);
+         else linkAfter(before, newChunk);
+         before = newChunk;
+      }
+      size += newArray.length;
+      modCount++;
+      return true;
+   }
+
+   @Override
+   public void clear()
+   {
+      //the garbage collector can handle the unreachable chunks
+      first = last = null;
+      size = 0;
+      modCount++;
+   }
+
+   @Override
+   public E get(final int index)
+   {
+      rangeCheckForGet(index);
+      final Cursor cursor = locate(index);
+      return cursor.chunk.get(cursor.offset);
+   }
+
+   @Override
+   public E set(final int index, final E newValue)
+   {
+      rangeCheckForGet(index);
+      final Cursor cursor = locate(index);
+      final E oldValue = cursor.chunk.get(cursor.offset);
+      cursor.chunk.elements[cursor.offset] = newValue;
+      //doesn't increment modCount because there was no structural change
+      return oldValue;
+   }
+
+   @Override
+   public E remove(final int index)
+   {
+      rangeCheckForGet(index);
+      return remove(locate(index));
+   }
+
+   @Override
+   public int indexOf(final Object objectToFind)
+   {
+      int chunkStart = 0;
+      for (Chunk chunk = first; chunk != null; chunk = chunk.next)
+      {
+         for (int i = 0; i < chunk.count; i++)
+         {
+            if (Objects.equals(objectToFind, chunk.elements[i])) return chunkStart + i;
+         }
+         chunkStart += chunk.count;
+      }
+      return LinkedList.ELEMENT_NOT_FOUND;
+   }
+
+   @Override
+   public int lastIndexOf(final Object objectToFind)
+   {
+      int chunkEnd = size;
+      for (Chunk chunk = last; chunk != null; chunk = chunk.prev)
+      {
+         final int chunkStart = chunkEnd - chunk.count;
+         for (int i = chunk.count - 1; i >= 0; i--)
+         {
+            if (Objects.equals(objectToFind, chunk.elements[i])) return chunkStart + i;
+         }
+         chunkEnd = chunkStart;
+      }
+      return LinkedList.ELEMENT_NOT_FOUND;
+   }
+
+   @Override
+   public boolean contains(final Object objectToFind)
+   {
+      return indexOf(objectToFind) != LinkedList.ELEMENT_NOT_FOUND;
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public void forEach(final Consumer<? super E> action)
+   {
+      Objects.requireNonNull(action);
+      final int expectedModCount = modCount;
+      for (Chunk chunk = first; chunk != null; chunk = chunk.next)
+      {
+         final Object[] elements = chunk.elements;
+         final int count = chunk.count;
+         for (int i = 0; i < count; i++){ action.accept((E) elements[i]); }
+         if (modCount != expectedModCount) throw new ConcurrentModificationException();
+      }
+   }
+
+   @Override
+   public Object[] toArray()
+   {
+      final Object[] result = new Object[size];
+      copyInto(result);
+      return result;
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public <T> T[] toArray(T[] destination)
+   {
+      if (destination.length < size)
+         destination = (T[]) java.lang.reflect.Array.newInstance(destination.getClass().getComponentType(), size);
+      //System.arraycopy throws ArrayStoreException if an element is the wrong type
+      copyInto(destination);
+      if (destination.length > size) destination[size] = null;
+      return destination;
+   }
+
+   @Override
+   public int getModCount()
+   {
+      return modCount;
+   }
+
+   /**
+    * @return a new list with the same elements and chunk capacity
+    */
+   @Override
+   public UnrolledLinkedList<E> copy()
+   {
+      final UnrolledLinkedList<E> result = new UnrolledLinkedList<>(chunkCapacity);
+      result.addAll(this);
+      return result;
+   }
+
+   protected void rangeCheckForGet(final int index)
+   {
+      if (index < 0 || index >= size) throw new ListIndexOutOfBoundsException(index, size);
+   }
+
+   protected void rangeCheckForAdd(final int index)
+   {
+      if (index == size) return;
+      rangeCheckForGet(index);
+   }
+
+   private void copyInto(final Object[] destination)
+   {
+      int destinationIndex = 0;
+      for (Chunk chunk = first; chunk != null; chunk = chunk.next)
+      {
+         System.arraycopy(chunk.elements, 0, destination, destinationIndex, chunk.count);
+         destinationIndex += chunk.count;
+      }
+   }
+
+   /**
+    * @param index can be size (which is the end cursor)
+    *
+    * @return the cursor at index. Skips entire chunks starting from whichever end is closer.
+    */
+   private Cursor locate(final int index)
+   {
+      if (index == size) return endCursor();
+      if (index < (size >> 1))
+      {
+         int remaining = index;
+         Chunk chunk = first;
+         while (remaining >= chunk.count)
+         {
+            remaining -= chunk.count;
+            chunk = chunk.next;
+         }
+         return new Cursor(chunk, remaining);
+      }
+      int chunkStart = size - last.count;
+      Chunk chunk = last;
+      while (index < chunkStart)
+      {
+         chunk = chunk.prev;
+         chunkStart -= chunk.count;
+      }
+      return new Cursor(chunk, index - chunkStart);
+   }
+
+   /**
+    * @return the cursor after the last element (which has a null chunk if the list is empty)
+    */
+   private Cursor endCursor()
+   {
+      if (last == null) return new Cursor(null, 0);
+      return new Cursor(last, last.count);
+   }
+
+   /**
+    * Inserts newElement before the element at the cursor.
+    *
+    * @param at will be changed to point to newElement
+    */
+   private void insert(final Cursor at, final E newElement)
+   {
+      if (at.chunk == null)
+      {
+         //the list is empty
+         at.chunk = new Chunk();
+         at.offset = 0;
+         linkFirst(at.chunk);
+      }
+      else if (at.chunk.count == chunkCapacity)
+      {
+         final Chunk full = at.chunk;
+         if (at.offset == chunkCapacity)
+         {
+            //only possible at the end of the list
+            at.chunk = new Chunk();
+            at.offset = 0;
+            linkAfter(full, at.chunk);
+         }
+         else if (at.offset == 0 && full.prev != null && full.prev.count < chunkCapacity)
+         {
+            at.chunk = full.prev;
+            at.offset = full.prev.count;
+         }
+         else if (at.offset == 0)
+         {
+            //a new chunk instead of a split so that repeated addFirst leaves the chunks full
+            at.chunk = new Chunk();
+            if (full.prev == null) linkFirst(at.chunk);
+            else linkAfter(full.prev, at.chunk);
+         }
+         else
+         {
+            final int half = chunkCapacity >> 1;
+            final Chunk upper = new Chunk();
+            upper.count = full.count - half;
+            System.arraycopy(full.elements, half, upper.elements, 0, upper.count);
+            Arrays.fill(full.elements, half, full.count, null);
+            full.count = half;
+            linkAfter(full, upper);
+            if (at.offset > half)
+            {
+               at.chunk = upper;
+               at.offset -= half;
+            }
+         }
+      }
+
+      final Chunk chunk = at.chunk;
+      System.arraycopy(chunk.elements, at.offset, chunk.elements, at.offset + 1, chunk.count - at.offset);
+      chunk.elements[at.offset] = newElement;
+      chunk.count++;
+      size++;
+      modCount++;
+   }
+
+   /**
+    * @param at must point to an element. Will be changed to point to the element after the removed one
+    *           (or the end cursor).
+    *
+    * @return the removed element
+    */
+   private E remove(final Cursor at)
+   {
+      final Chunk chunk = at.chunk;
+      final E removed = chunk.get(at.offset);
+      System.arraycopy(chunk.elements, at.offset + 1, chunk.elements, at.offset, chunk.count - at.offset - 1);
+      chunk.count--;
+      chunk.elements[chunk.count] = null;
+      size--;
+      modCount++;
+
+      if (chunk.count == 0)
+      {
+         final Chunk next = chunk.next;
+         unlink(chunk);
+         if (next == null)
+         {
+            final Cursor end = endCursor();
+            at.chunk = end.chunk;
+            at.offset = end.offset;
+         }
+         else
+         {
+            at.chunk = next;
+            at.offset = 0;
+         }
+         return removed;
+      }
+      if (chunk.count < (chunkCapacity >> 1))
+      {
+         //merge so that the chunks don't become sparse
+         final Chunk next = chunk.next;
+         final Chunk prev = chunk.prev;
+         if (next != null && chunk.count + next.count <= chunkCapacity)
+         {
+            System.arraycopy(next.elements, 0, chunk.elements, chunk.count, next.count);
+            chunk.count += next.count;
+            unlink(next);
+         }
+         else if (prev != null && prev.count + chunk.count <= chunkCapacity)
+         {
+            System.arraycopy(chunk.elements, 0, prev.elements, prev.count, chunk.count);
+            at.offset += prev.count;
+            prev.count += chunk.count;
+            unlink(chunk);
+            at.chunk = prev;
+         }
+      }
+      normalize(at);
+      return removed;
+   }
+
+   /**
+    * A cursor at the end of a chunk is moved to the start of the next chunk (if there is one).
+    */
+   private void normalize(final Cursor cursor)
+   {
+      if (cursor.chunk != null && cursor.offset == cursor.chunk.count && cursor.chunk.next != null)
+      {
+         cursor.chunk = cursor.chunk.next;
+         cursor.offset = 0;
+      }
+   }
+
+   private void linkFirst(final Chunk newChunk)
+   {
+      newChunk.next = first;
+      if (first == null) last = newChunk;
+      else first.prev = newChunk;
+      first = newChunk;
+   }
+
+   private void linkAfter(final Chunk before, final Chunk newChunk)
+   {
+      newChunk.prev = before;
+      newChunk.next = before.next;
+      if (before.next == null) last = newChunk;
+      else before.next.prev = newChunk;
+      before.next = newChunk;
+   }
+
+   private void unlink(final Chunk chunk)
+   {
+      if (chunk.prev == null) first = chunk.next;
+      else chunk.prev.next = chunk.next;
+      if (chunk.next == null) last = chunk.prev;
+      else chunk.next.prev = chunk.prev;
+   }
+
+   /**
+    * A node of the list which holds up to chunkCapacity elements in order.
+    */
+   protected final class Chunk
+   {
+      protected final Object[] elements = new Object[chunkCapacity];
+      protected int count;
+      protected Chunk prev;
+      protected Chunk next;
+
+      protected Chunk(){}
+
+      @SuppressWarnings("unchecked")
+      protected E get(final int offset)
+      {
+         return (E) elements[offset];
+      }
+   }
+
+   /**
+    * A position in the list: the element at offset within chunk. The end of the list has offset == chunk.count.
+    */
+   private final class Cursor
+   {
+      private Chunk chunk;
+      private int offset;
+
+      private Cursor(final Chunk chunk, final int offset)
+      {
+         this.chunk = chunk;
+         this.offset = offset;
+      }
+   }
+
+   /**
+    * Moves within a chunk's array and only follows a link at the end of a chunk. Adding and removing only shift
+    * within a chunk (the same as the list's methods).
+    */
+   private final class ChunkIterator implements ListIterator<E>
+   {
+      /**
+       * The element that next() would return
+       */
+      private Cursor cursor;
+      private int nextIndex;
+      /**
+       * null if there is no element to remove or set
+       */
+      private Cursor lastReturned;
+      private int expectedModCount = modCount;
+
+      private ChunkIterator(final int startingIndex)
+      {
+         cursor = locate(startingIndex);
+         nextIndex = startingIndex;
+      }
+
+      @Override
+      public boolean hasNext()
+      {
+         return nextIndex < size;
+      }
+
+      @Override
+      public E next()
+      {
+         checkForComodification();
+         if (!hasNext()) throw new NoSuchElementException();
+         final E result = cursor.chunk.get(cursor.offset);
+         lastReturned = new Cursor(cursor.chunk, cursor.offset);
+         cursor.offset++;
+         normalize(cursor);
+         nextIndex++;
+         return result;
+      }
+
+      @Override
+      public boolean hasPrevious()
+      {
+         return nextIndex > 0;
+      }
+
+      @Override
+      public E previous()
+      {
+         checkForComodification();
+         if (!hasPrevious()) throw new NoSuchElementException();
+         if (cursor.offset == 0)
+         {
+            cursor.chunk = cursor.chunk.prev;
+            cursor.offset = cursor.chunk.count;
+         }
+         cursor.offset--;
+         nextIndex--;
+         lastReturned = new Cursor(cursor.chunk, cursor.offset);
+         return cursor.chunk.get(cursor.offset);
+      }
+
+      @Override
+      public int nextIndex()
+      {
+         return nextIndex;
+      }
+
+      @Override
+      public int previousIndex()
+      {
+         return nextIndex - 1;
+      }
+
+      @Override
+      public void remove()
+      {
+         if (lastReturned == null) throw new IllegalStateException();
+         checkForComodification();
+         //if next() was called then the removed element was before the cursor
+         if (lastReturned.chunk != cursor.chunk || lastReturned.offset != cursor.offset) nextIndex--;
+         UnrolledLinkedList.this.remove(lastReturned);
+         //either way the element after the removed one is next
+         cursor = lastReturned;
+         lastReturned = null;
+         expectedModCount = modCount;
+      }
+
+      @Override
+      public void set(final E newValue)
+      {
+         if (lastReturned == null) throw new IllegalStateException();
+         checkForComodification();
+         lastReturned.chunk.elements[lastReturned.offset] = newValue;
+      }
+
+      @Override
+      public void add(final E newElement)
+      {
+         checkForComodification();
+         if (size == Integer.MAX_VALUE)
+            throw new IllegalStateException("Capacity violating. The maximum number of elements can't exceed Integer.MAX_VALUE.");
+         insert(cursor, newElement);
+         cursor.offset++;
+         normalize(cursor);
+         nextIndex++;
+         lastReturned = null;
+         expectedModCount = modCount;
+      }
+
+      private void checkForComodification()
+      {
+         if (modCount != expectedModCount) throw new ConcurrentModificationException();
+      }
+   }
+}
@@ -4,13 +4,20 @@ import java.util.AbstractList;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.RandomAccess;
 
+import com.github.skySpiral7.java.dataStructures.LinkedList;
 import com.github.skySpiral7.java.dataStructures.ModCountList;
+import com.github.skySpiral7.java.pojo.DequeNode;
 
 /**
  * Copied from AbstractList.Itr with few changes. Note that the underlyingList must have the following methods defined:
  * size(), get(int), remove(int), getModCount().
  *
+ * <p>If the underlyingList is a {@link LinkedList} (which isn't RandomAccess) then this iterator holds the node at
+ * the cursor and walks the nodes so that iterating is O(n) instead of calling get(int) for each element.
+ * Other lists use get(int).</p>
+ *
  * @param <E> the data type of the list
  *
  * @see AbstractList
@@ -38,12 +45,26 @@ public class IteratorExternal<E> implements Iterator<E>
 
    protected ModCountList<E> underlyingList;
 
+   /**
+    * The underlyingList if its nodes are walked otherwise null.
+    */
+   protected final LinkedList<E> nodeList;
+
+   /**
+    * The node at cursor if walking nodes. null if cursor == size or if the node hasn't been found yet
+    * (in which case getNode is used). Since the modCount is checked, the list can't change without this iterator knowing.
+    */
+   protected DequeNode<E> cursorNode;
+
    public IteratorExternal(ModCountList<E> underlyingList, int initialIndex)
    {
       cursor = initialIndex;
       lastRet = -1;
       this.underlyingList = underlyingList;
       expectedModCount = underlyingList.getModCount();
+      if (underlyingList instanceof LinkedList && !(underlyingList instanceof RandomAccess))
+         nodeList = (LinkedList<E>) underlyingList;
+      else nodeList = null;
    }
 
    public IteratorExternal(ModCountList<E> underlyingList){this(underlyingList, 0);}
@@ -58,7 +79,7 @@ public class IteratorExternal<E> implements Iterator<E>
       checkForComodification();
       try
       {
-         E next = underlyingList.get(cursor);
+         E next = nextElement();
          lastRet = cursor;
          cursor++;
          return next;
@@ -77,10 +98,14 @@ public class IteratorExternal<E> implements Iterator<E>
 
       try
       {
+         final boolean wasSharingNodes = isSharingNodes();
+         //if previous was called then the node being removed is cursorNode
+         if (lastRet == cursor && cursorNode != null) cursorNode = cursorNode.getNext();
          underlyingList.remove(lastRet);
          if (lastRet < cursor) cursor--;
          lastRet = -1;
          expectedModCount = underlyingList.getModCount();
+         afterWrite(wasSharingNodes);
       }
       catch (IndexOutOfBoundsException e)
       {
@@ -88,6 +113,43 @@ public class IteratorExternal<E> implements Iterator<E>
       }
    }
 
+   /**
+    * @return the element at cursor. Walking nodes also moves cursorNode to the next node.
+    *
+    * @throws IndexOutOfBoundsException if cursor isn't a valid index
+    */
+   protected E nextElement()
+   {
+      if (nodeList == null) return underlyingList.get(cursor);
+      if (cursorNode == null) cursorNode = nodeList.getNode(cursor);
+      E next = cursorNode.getData();
+      cursorNode = cursorNode.getNext();
+      return next;
+   }
+
+   /**
+    * Must be called before this iterator changes the list and the result passed to afterWrite.
+    *
+    * @see LinkedList#isSharingNodes()
+    */
+   protected boolean isSharingNodes()
+   {
+      return nodeList != null && nodeList.isSharingNodes();
+   }
+
+   /**
+    * Must be called after this iterator changes the list. A LinkedList that was sharing its nodes with a copy has
+    * copied them (see {@link LinkedList#setCopyOnWriteSnapshots(boolean)}) so the node is found again when needed.
+    * This doesn't depend on whether copy on write snapshots are still enabled since turning that off doesn't stop
+    * sharing the nodes of copies already made.
+    *
+    * @param wasSharingNodes the result of isSharingNodes() before the change
+    */
+   protected void afterWrite(final boolean wasSharingNodes)
+   {
+      if (wasSharingNodes) cursorNode = null;
+   }
+
    protected final void checkForComodification()
    {
       if (underlyingList.getModCount() != expectedModCount) throw new ConcurrentModificationException();
@@ -72,7 +72,7 @@ public interface JumpingIterator<E> extends ListIterator<E>
     *
     * @see #jumpByIndex(ListIterator, int)
     */
-   default public void jumpToIndex(int destination){jumpByIndex(this, destination);}
+   default public void jumpToIndex(int destination){jumpToIndex(this, destination);}
 
    /**
     * <p>After calling this method the iterator will be in a position such that nextIndex() matches the destination.
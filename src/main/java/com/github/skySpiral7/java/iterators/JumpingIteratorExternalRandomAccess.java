@@ -10,7 +10,11 @@ public class JumpingIteratorExternalRandomAccess<E> extends ListIteratorExternal
    public JumpingIteratorExternalRandomAccess(ModCountList<E> underlyingList){super(underlyingList);}
 
    @Override
-   public void jumpToBeginning(){cursor = 0;}
+   public void jumpToBeginning()
+   {
+      cursor = 0;
+      cursorNode = null;
+   }
 
    @Override
    public void jumpByIndex(int jumpAmount)
@@ -18,6 +22,7 @@ public class JumpingIteratorExternalRandomAccess<E> extends ListIteratorExternal
       cursor += jumpAmount;
       if (cursor < 0) cursor = 0;
       if (cursor > underlyingList.size()) cursor = underlyingList.size();
+      cursorNode = null;
    }
 
    @Override
@@ -27,9 +32,14 @@ public class JumpingIteratorExternalRandomAccess<E> extends ListIteratorExternal
       cursor = destination;
       if (cursor < 0) cursor = 0;
       if (cursor > underlyingList.size()) cursor = underlyingList.size();
+      cursorNode = null;
    }
 
    @Override
-   public void jumpToEnd(){cursor = underlyingList.size();}
+   public void jumpToEnd()
+   {
+      cursor = underlyingList.size();
+      cursorNode = null;
+   }
 
 }
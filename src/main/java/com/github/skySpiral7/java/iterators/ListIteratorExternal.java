@@ -6,6 +6,7 @@ import java.util.ListIterator;
 import java.util.NoSuchElementException;
 
 import com.github.skySpiral7.java.dataStructures.ModCountList;
+import com.github.skySpiral7.java.pojo.DequeNode;
 
 /**
  * Copied from AbstractList.ListItr with few changes. In addition to those defined IteratorExternal the underlyingList must also
@@ -32,9 +33,8 @@ public class ListIteratorExternal<E> extends IteratorExternal<E> implements List
       checkForComodification();
       try
       {
-         int i = cursor - 1;
-         E previous = underlyingList.get(i);
-         lastRet = cursor = i;
+         E previous = previousElement();
+         lastRet = cursor = cursor - 1;
          return previous;
       }
       catch (IndexOutOfBoundsException e)
@@ -44,6 +44,20 @@ public class ListIteratorExternal<E> extends IteratorExternal<E> implements List
       }
    }
 
+   /**
+    * @return the element at cursor - 1. Walking nodes also moves cursorNode to that node.
+    *
+    * @throws IndexOutOfBoundsException if cursor - 1 isn't a valid index
+    */
+   protected E previousElement()
+   {
+      int i = cursor - 1;
+      if (nodeList == null) return underlyingList.get(i);
+      DequeNode<E> previousNode = (cursorNode == null || i < 0) ? nodeList.getNode(i) : cursorNode.getPrev();
+      cursorNode = previousNode;
+      return previousNode.getData();
+   }
+
    public int nextIndex()
    {
       return cursor;
@@ -61,8 +75,10 @@ public class ListIteratorExternal<E> extends IteratorExternal<E> implements List
 
       try
       {
+         final boolean wasSharingNodes = isSharingNodes();
          underlyingList.set(lastRet, e);
          expectedModCount = underlyingList.getModCount();
+         afterWrite(wasSharingNodes);
       }
       catch (IndexOutOfBoundsException ex)
       {
@@ -76,10 +92,13 @@ public class ListIteratorExternal<E> extends IteratorExternal<E> implements List
 
       try
       {
+         final boolean wasSharingNodes = isSharingNodes();
+         //the new node is before cursorNode so cursorNode is still correct (unless the nodes were copied)
          underlyingList.add(cursor, e);
          lastRet = -1;
          cursor++;
          expectedModCount = underlyingList.getModCount();
+         afterWrite(wasSharingNodes);
       }
       catch (IndexOutOfBoundsException ex)
       {
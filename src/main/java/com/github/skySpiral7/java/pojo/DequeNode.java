@@ -1,6 +1,11 @@
 package com.github.skySpiral7.java.pojo;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.Comparator;
 import java.util.Objects;
 
 import com.github.skySpiral7.java.dataStructures.LinkedList;
@@ -14,7 +19,8 @@ import com.github.skySpiral7.java.iterators.DequeNodeIterator;
  * These are simple nodes without much functionality. Therefore a minimum number of public methods are provided
  * for a deque implementation. This is not designed for a tree or graph but a list: this is designed as a node
  * with previous node and next node pointers (and data) to be arranged in a line. This is not designed for complicated
- * insertions or sorting.</p>
+ * insertions. The only operations on an entire chain of nodes are moving it ({@link #removeThrough(DequeNode)}) and
+ * sorting it ({@link #sortChain(DequeNode, DequeNode, Comparator)}).</p>
  *
  * <p>This class's self linking nature should prevent pointer mismatch for linear structures.
  * This class does not validate pointers or detect structure shape.
@@ -28,7 +34,10 @@ import com.github.skySpiral7.java.iterators.DequeNodeIterator;
  */
 public class DequeNode<E> implements Serializable
 {
-   private static final long serialVersionUID = 1L;
+   /**
+    * 2 since the chain is written flat
+    */
+   private static final long serialVersionUID = 2L;
 
    /**
     * the data that this node holds
@@ -37,11 +46,11 @@ public class DequeNode<E> implements Serializable
    /**
     * the next node or null if there is no next node
     */
-   protected DequeNode<E> next;
+   protected transient DequeNode<E> next;
    /**
     * the previous node or null if there is no previous node
     */
-   protected DequeNode<E> prev;
+   protected transient DequeNode<E> prev;
 
    /**
     * Create a stand alone node that does not have a previous or next node.
@@ -129,6 +138,194 @@ public class DequeNode<E> implements Serializable
       return this;
    }
 
+   /**
+    * Removes the chain of nodes from this node through chainLast from the list. The nodes around the chain are linked
+    * together and the chain becomes stand alone (but the nodes within it are still linked to each other).
+    *
+    * @param chainLast must be this node or a node after this node
+    *
+    * @return itself (the first node of the chain)
+    *
+    * @see #remove()
+    */
+   public DequeNode<E> removeThrough(DequeNode<E> chainLast)
+   {
+      if (prev != null) prev.next = chainLast.next;
+      if (chainLast.next != null) chainLast.next.prev = this.prev;
+      this.prev = chainLast.next = null;
+      return this;
+   }
+
+   /**
+    * Inserts the stand alone chain of nodes from this node through chainLast between prev and next. This is the
+    * opposite of {@link #removeThrough(DequeNode)} and is O(1) no matter how long the chain is.
+    *
+    * @param chainLast must be this node or a node after this node. The chain must not already be in a list.
+    * @param prev      the node that comes before this node or null if there is no previous node
+    * @param next      the node that comes after chainLast or null if there is no next node
+    */
+   public void insertThroughBetween(DequeNode<E> chainLast, DequeNode<E> prev, DequeNode<E> next)
+   {
+      this.prev = prev;
+      chainLast.next = next;
+
+      if (prev != null) prev.next = this;
+      if (next != null) next.prev = chainLast;
+   }
+
+   /**
+    * <p>Sorts a stand alone chain of nodes by relinking them (the data of each node is unchanged).
+    * This is a bottom up natural merge sort: each pass merges pairs of runs that are already in order so a chain
+    * that is already sorted only takes 1 pass. It is stable, O(n log n), and uses O(1) extra space.</p>
+    *
+    * <p>Only the next pointers are changed while sorting and the prev pointers are fixed at the end. Therefore if the
+    * comparator throws then the original order is restored (by following the unchanged prev pointers) before rethrowing.</p>
+    *
+    * @param chainFirst the first node which must not have a previous node
+    * @param chainLast  the last node which must not have a next node
+    * @param comparator null means natural ordering
+    *
+    * @return the new first node. The new last node is the one that has no next node.
+    */
+   @SuppressWarnings("unchecked")
+   public static <E> DequeNode<E> sortChain(DequeNode<E> chainFirst, DequeNode<E> chainLast, Comparator<? super E> comparator)
+   {
+      if (comparator == null) comparator = (Comparator<? super E>) Comparator.naturalOrder();
+      DequeNode<E> head = chainFirst;
+      try
+      {
+         boolean isSorted = false;
+         while (!isSorted)
+         {
+            DequeNode<E> unmerged = head;
+            DequeNode<E> mergedHead = null;
+            DequeNode<E> mergedTail = null;
+            int runCount = 0;
+            while (unmerged != null)
+            {
+               DequeNode<E> left = unmerged;
+               DequeNode<E> leftEnd = endOfRun(left, comparator);
+               DequeNode<E> right = leftEnd.next;
+               DequeNode<E> rightEnd = null;
+               if (right == null) unmerged = null;
+               else
+               {
+                  rightEnd = endOfRun(right, comparator);
+                  unmerged = rightEnd.next;
+                  leftEnd.next = null;
+                  rightEnd.next = null;
+               }
+               runCount++;
+
+               while (left != null && right != null)
+               {
+                  DequeNode<E> smaller;
+                  //ties take from the left to be stable
+                  if (comparator.compare(right.data, left.data) < 0)
+                  {
+                     smaller = right;
+                     right = right.next;
+                  }
+                  else
+                  {
+                     smaller = left;
+                     left = left.next;
+                  }
+                  if (mergedTail == null) mergedHead = smaller;
+                  else mergedTail.next = smaller;
+                  mergedTail = smaller;
+               }
+               DequeNode<E> rest = (left != null) ? left : right;
+               if (mergedTail == null) mergedHead = rest;
+               else mergedTail.next = rest;
+               mergedTail = (left != null) ? leftEnd : rightEnd;
+            }
+            head = mergedHead;
+            isSorted = (runCount == 1);
+         }
+      }
+      catch (RuntimeException | Error throwable)
+      {
+         for (DequeNode<E> cursor = chainLast; cursor.prev != null; cursor = cursor.prev){ cursor.prev.next = cursor; }
+         chainLast.next = null;
+         throw throwable;
+      }
+
+      DequeNode<E> previousNode = null;
+      for (DequeNode<E> cursor = head; cursor != null; cursor = cursor.next)
+      {
+         cursor.prev = previousNode;
+         previousNode = cursor;
+      }
+      return head;
+   }
+
+   /**
+    * @return the last node of the run (that is in order) which starts at runStart
+    */
+   private static <E> DequeNode<E> endOfRun(DequeNode<E> runStart, Comparator<? super E> comparator)
+   {
+      DequeNode<E> runEnd = runStart;
+      while (runEnd.next != null && comparator.compare(runEnd.data, runEnd.next.data) <= 0){ runEnd = runEnd.next; }
+      return runEnd;
+   }
+
+   /**
+    * Writes the data of every node in the chain (instead of recursing through each link which could overflow the stack).
+    * If the chain is a circle then it is written once and marked as a circle.
+    *
+    * @serialData this node's data (by defaultWriteObject), whether the chain is a circle (boolean), the number of nodes
+    * after this one (int) followed by their data in order, then (if not a circle) the number of nodes before this one
+    * (int) followed by their data from nearest to farthest.
+    */
+   private void writeObject(ObjectOutputStream out) throws IOException
+   {
+      out.defaultWriteObject();
+      int nextCount = 0;
+      DequeNode<E> cursor = next;
+      for (; cursor != null && cursor != this; cursor = cursor.next){ nextCount++; }
+      boolean isCircle = (cursor == this);
+      out.writeBoolean(isCircle);
+      out.writeInt(nextCount);
+      cursor = next;
+      for (int i = 0; i < nextCount; i++)
+      {
+         out.writeObject(cursor.data);
+         cursor = cursor.next;
+      }
+      if (isCircle) return;
+
+      int prevCount = 0;
+      for (cursor = prev; cursor != null; cursor = cursor.prev){ prevCount++; }
+      out.writeInt(prevCount);
+      for (cursor = prev; cursor != null; cursor = cursor.prev){ out.writeObject(cursor.data); }
+   }
+
+   /**
+    * Rebuilds the chain in a loop. The other nodes are created as DequeNode (even if they were a child class).
+    */
+   @SuppressWarnings("unchecked")
+   private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+   {
+      in.defaultReadObject();
+      boolean isCircle = in.readBoolean();
+      int nextCount = in.readInt();
+      if (nextCount < 0) throw new InvalidObjectException("Negative node count: " + nextCount);
+      DequeNode<E> cursor = this;
+      for (int i = 0; i < nextCount; i++){ cursor = new DequeNode<E>(cursor, (E) in.readObject()); }
+      if (isCircle)
+      {
+         cursor.next = this;
+         this.prev = cursor;
+         return;
+      }
+
+      int prevCount = in.readInt();
+      if (prevCount < 0) throw new InvalidObjectException("Negative node count: " + prevCount);
+      cursor = this;
+      for (int i = 0; i < prevCount; i++){ cursor = new DequeNode<E>((E) in.readObject(), cursor); }
+   }
+
    /**
     * Note that this simply calls data.toString(). Next and previous nodes are not included to prevent the entire list
     * being evaluated. This implementation also allows the linked list to call node.toString for each element.
@@ -175,6 +372,95 @@ public class DequeNode<E> implements Serializable
     */
    public void setData(E data){this.data = data;}
 
+   /**
+    * <p>A bounded free list of nodes so that a structure that constantly adds and removes doesn't allocate a node for
+    * each add. A released node is reset (its data is cleared) and is given out again by acquire.</p>
+    *
+    * <p>Only release a node when nothing else will use it: if something kept a reference to the node (such as an
+    * iterator) then it will see the node be reused. This class is not thread safe (use one pool per structure).</p>
+    *
+    * @param <E> the data type of the nodes
+    */
+   public static class Pool<E>
+   {
+      private final int maxSize;
+      /**
+       * The free nodes are linked by next
+       */
+      private DequeNode<E> top;
+      private int size;
+
+      /**
+       * @param maxSize the most nodes that will be kept. Nodes released after that are left for the garbage collector.
+       */
+      public Pool(int maxSize)
+      {
+         if (maxSize < 0) throw new IllegalArgumentException("maxSize can't be negative: " + maxSize);
+         this.maxSize = maxSize;
+      }
+
+      /**
+       * The same as {@link Factory#createNodeBetween(DequeNode, Object, DequeNode)} except that a released node
+       * is reused if there is one.
+       */
+      public DequeNode<E> acquire(DequeNode<E> prev, E data, DequeNode<E> next)
+      {
+         if (top == null) return new DequeNode<E>(prev, data, next);
+         DequeNode<E> result = top;
+         top = result.next;
+         size--;
+         result.data = data;
+         result.insertThisBetween(prev, next);
+         return result;
+      }
+
+      /**
+       * @param node must be stand alone (already removed)
+       *
+       * @return true if the node was kept for reuse or false if the pool is full
+       */
+      public boolean release(DequeNode<E> node)
+      {
+         if (node.prev != null || node.next != null) throw new IllegalArgumentException("The node must be removed first");
+         if (size == maxSize) return false;
+         node.data = null;  //so that it can be garbage collected
+         node.next = top;
+         top = node;
+         size++;
+         return true;
+      }
+
+      /**
+       * @return true if release would keep another node
+       */
+      public boolean hasRoom()
+      {
+         return size < maxSize;
+      }
+
+      /**
+       * @return the number of nodes that are available for reuse
+       */
+      public int size()
+      {
+         return size;
+      }
+
+      public int getMaxSize()
+      {
+         return maxSize;
+      }
+
+      /**
+       * Lets every pooled node be garbage collected.
+       */
+      public void clear()
+      {
+         top = null;
+         size = 0;
+      }
+   }
+
    /**
     * This factory creates nodes and links them together.
     * Each of these methods simply call a public constructor
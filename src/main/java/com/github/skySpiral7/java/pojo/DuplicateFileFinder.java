@@ -0,0 +1,146 @@
+package com.github.skySpiral7.java.pojo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>Finds regular files that have the same content. Reading every file is avoided by first grouping by size
+ * (which only reads the attributes), then by a hash of the first few kilobytes, and only then by a hash of the
+ * entire content. The hashing is done in parallel (on the common ForkJoinPool) since it is mostly waiting on reads.</p>
+ *
+ * <p>Example: {@code DuplicateFileFinder.findDuplicates(FileGatherer.search(root))}</p>
+ *
+ * @see FileGatherer
+ */
+public final class DuplicateFileFinder
+{
+   /**
+    * How many bytes at the beginning of each file are hashed before hashing everything
+    */
+   public static final int PARTIAL_HASH_SIZE = 4096;
+   private static final String HASH_ALGORITHM = "SHA-256";
+
+   private DuplicateFileFinder(){}
+
+   /**
+    * @param paths anything that isn't a regular file is ignored (as are files that are deleted while searching).
+    *              It can be parallel and is closed once it has been read.
+    *
+    * @return each group has at least 2 paths that have the same content. The order of the groups and of the paths in
+    * each group is unspecified.
+    */
+   public static List<List<Path>> findDuplicates(final Stream<Path> paths)
+   {
+      final Map<Long, List<Path>> sizeGroups;
+      try (paths)
+      {
+         //collected (instead of forEach into a map) so that paths can be parallel
+         sizeGroups = paths.map(path -> new AbstractMap.SimpleImmutableEntry<>(path, readAttributes(path)))
+               .filter(pathAndAttributes -> pathAndAttributes.getValue() != null && pathAndAttributes.getValue().isRegularFile())
+               .collect(Collectors.groupingBy(pathAndAttributes -> pathAndAttributes.getValue().size(),
+                     Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+      }
+
+      final List<List<Path>> result = new ArrayList<>();
+      for (final Map.Entry<Long, List<Path>> sizeGroup : sizeGroups.entrySet())
+      {
+         if (sizeGroup.getValue().size() < 2) continue;
+         //empty files are all the same
+         if (sizeGroup.getKey() == 0)
+         {
+            result.add(sizeGroup.getValue());
+            continue;
+         }
+         for (final List<Path> partialGroup : groupByHash(sizeGroup.getValue(), path -> hash(path, PARTIAL_HASH_SIZE)))
+         {
+            //the partial hash was of the entire content
+            if (sizeGroup.getKey() <= PARTIAL_HASH_SIZE) result.add(partialGroup);
+            else result.addAll(groupByHash(partialGroup, path -> hash(path, Long.MAX_VALUE)));
+         }
+      }
+      return result;
+   }
+
+   /**
+    * @return only the groups that have at least 2 paths
+    */
+   private static List<List<Path>> groupByHash(final Collection<Path> paths, final Function<Path, ByteBuffer> hasher)
+   {
+      //a null hash means the file was deleted. ByteBuffer's equals compares the content
+      final Map<ByteBuffer, List<Path>> hashGroups = paths.parallelStream()
+            .map(path -> new AbstractMap.SimpleImmutableEntry<>(hasher.apply(path), path))
+            .filter(hashAndPath -> hashAndPath.getKey() != null)
+            .collect(Collectors.groupingByConcurrent(Map.Entry::getKey, Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+      return hashGroups.values().stream().filter(group -> group.size() >= 2).collect(Collectors.toList());
+   }
+
+   /**
+    * @return the hash of the first maxBytes of the file or null if the file doesn't exist
+    */
+   private static ByteBuffer hash(final Path path, final long maxBytes)
+   {
+      final MessageDigest digest;
+      try
+      {
+         digest = MessageDigest.getInstance(HASH_ALGORITHM);
+      }
+      catch (final NoSuchAlgorithmException noSuchAlgorithmException)
+      {
+         //every JRE is required to have SHA-256
+         throw new IllegalStateException(noSuchAlgorithmException);
+      }
+      try (final InputStream input = Files.newInputStream(path))
+      {
+         final byte[] buffer = new byte[(int) Math.min(64 * 1024, maxBytes)];
+         long remaining = maxBytes;
+         while (remaining > 0)
+         {
+            final int readCount = input.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (readCount == -1) break;
+            digest.update(buffer, 0, readCount);
+            remaining -= readCount;
+         }
+         return ByteBuffer.wrap(digest.digest());
+      }
+      catch (final NoSuchFileException noSuchFileException)
+      {
+         return null;
+      }
+      catch (final IOException ioException)
+      {
+         throw new UncheckedIOException("Could not read " + path, ioException);
+      }
+   }
+
+   private static BasicFileAttributes readAttributes(final Path path)
+   {
+      try
+      {
+         return Files.readAttributes(path, BasicFileAttributes.class);
+      }
+      catch (final NoSuchFileException noSuchFileException)
+      {
+         return null;
+      }
+      catch (final IOException ioException)
+      {
+         throw new UncheckedIOException("Could not read attributes of " + path, ioException);
+      }
+   }
+}
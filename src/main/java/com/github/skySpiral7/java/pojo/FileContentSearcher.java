@@ -0,0 +1,357 @@
+package com.github.skySpiral7.java.pojo;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>Finds every line that matches within the given files. The files are read in parallel (with at most maxFilesInFlight
+ * being read or waiting to be returned at once) while the lines are streamed: the content of a file is never entirely
+ * in memory and each thread reuses its buffers. A String is only created for lines that match. However the matches of
+ * each file are kept in a list until that file is returned, so a file with a huge number of matching lines will use
+ * memory for all of them (up to maxFilesInFlight files at once).</p>
+ *
+ * <p>The searches use their own threads which are only stopped once the returned stream is closed (or fully read).
+ * Therefore always close the returned stream such as with try-with-resources.</p>
+ *
+ * <p>Example: {@code new FileContentSearcher().searchForLiteral(FileGatherer.searchForExtensions(root, "log"), "ERROR")}</p>
+ *
+ * @see FileGatherer
+ */
+public final class FileContentSearcher
+{
+   private Charset encoding;
+   private int maxFilesInFlight;
+   private boolean isOrdered;
+
+   public FileContentSearcher()
+   {
+      encoding = StandardCharsets.UTF_8;
+      maxFilesInFlight = Runtime.getRuntime().availableProcessors() * 2;
+      isOrdered = true;
+   }
+
+   public Charset getEncoding()
+   {
+      return encoding;
+   }
+
+   public int getMaxFilesInFlight()
+   {
+      return maxFilesInFlight;
+   }
+
+   public boolean isOrdered()
+   {
+      return isOrdered;
+   }
+
+   /**
+    * @param encoding the encoding of every file. Malformed input is replaced rather than throwing.
+    */
+   public FileContentSearcher withEncoding(final Charset encoding)
+   {
+      Objects.requireNonNull(encoding);
+      this.encoding = encoding;
+      return this;
+   }
+
+   /**
+    * @param maxFilesInFlight the number of threads and also the maximum number of files that are being read (or have been
+    *                         read but not yet returned) at once. Defaults to twice the number of processors.
+    */
+   public FileContentSearcher withMaxFilesInFlight(final int maxFilesInFlight)
+   {
+      if (maxFilesInFlight < 1) throw new IllegalArgumentException("maxFilesInFlight must be at least 1 but was " + maxFilesInFlight);
+      this.maxFilesInFlight = maxFilesInFlight;
+      return this;
+   }
+
+   /**
+    * @param isOrdered if true (the default) then the matches are returned in the same order as the files (and by line number).
+    *                  If false then each file's matches are returned as soon as that file is done which is faster.
+    */
+   public FileContentSearcher withOrderedResults(final boolean isOrdered)
+   {
+      this.isOrdered = isOrdered;
+      return this;
+   }
+
+   /**
+    * @param files   each must be a readable file. The stream is closed when the returned stream is closed.
+    * @param literal each line that contains this exact text is returned
+    *
+    * @return a stream which must be closed so that the threads are stopped
+    */
+   public Stream<Match> searchForLiteral(final Stream<Path> files, final String literal)
+   {
+      Objects.requireNonNull(literal);
+      return search(files, () -> line -> line.indexOf(literal) != -1);
+   }
+
+   /**
+    * @param files   each must be a readable file. The stream is closed when the returned stream is closed.
+    * @param pattern each line that contains this pattern (according to Matcher.find) is returned
+    *
+    * @return a stream which must be closed so that the threads are stopped
+    */
+   public Stream<Match> searchForPattern(final Stream<Path> files, final Pattern pattern)
+   {
+      Objects.requireNonNull(pattern);
+      return search(files, () -> {
+         //each file gets a matcher so that it can be reused for each line
+         final Matcher matcher = pattern.matcher("");
+         return line -> matcher.reset(line).find();
+      });
+   }
+
+   private Stream<Match> search(final Stream<Path> files, final Supplier<Predicate<StringBuilder>> lineMatcherFactory)
+   {
+      final SearchResults results = new SearchResults(files.iterator(), lineMatcherFactory, encoding, maxFilesInFlight, isOrdered);
+      final int characteristics = isOrdered ? (Spliterator.ORDERED | Spliterator.NONNULL) : Spliterator.NONNULL;
+      //closing the stream is the only way to stop the threads if the stream isn't fully read
+      return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results, characteristics), false)
+            .onClose(results::close)
+            .onClose(files::close);
+   }
+
+   /**
+    * Keeps up to maxFilesInFlight files submitted and returns the matches of each file in turn.
+    */
+   private static final class SearchResults implements Iterator<Match>
+   {
+      private final Iterator<Path> files;
+      private final Supplier<Predicate<StringBuilder>> lineMatcherFactory;
+      private final Charset encoding;
+      private final int maxFilesInFlight;
+      private final ExecutorService executor;
+      /**
+       * Only used if ordered
+       */
+      private final Deque<Future<List<Match>>> inFlight = new ArrayDeque<>();
+      /**
+       * Only used if unordered
+       */
+      private final CompletionService<List<Match>> completionService;
+      private final ThreadLocal<LineReader> lineReaders = ThreadLocal.withInitial(LineReader::new);
+      private int inFlightCount = 0;
+      private Iterator<Match> fileMatches = Collections.emptyIterator();
+
+      private SearchResults(final Iterator<Path> files, final Supplier<Predicate<StringBuilder>> lineMatcherFactory,
+                            final Charset encoding, final int maxFilesInFlight, final boolean isOrdered)
+      {
+         this.files = files;
+         this.lineMatcherFactory = lineMatcherFactory;
+         this.encoding = encoding;
+         this.maxFilesInFlight = maxFilesInFlight;
+         executor = Executors.newFixedThreadPool(maxFilesInFlight, runnable -> {
+            final Thread thread = new Thread(runnable, "FileContentSearcher");
+            //doesn't prevent the JVM from exiting if the stream is abandoned
+            thread.setDaemon(true);
+            return thread;
+         });
+         completionService = isOrdered ? null : new ExecutorCompletionService<>(executor);
+      }
+
+      @Override
+      public boolean hasNext()
+      {
+         while (!fileMatches.hasNext())
+         {
+            while (inFlightCount < maxFilesInFlight && files.hasNext()){ submit(files.next()); }
+            if (inFlightCount == 0)
+            {
+               executor.shutdown();
+               return false;
+            }
+            fileMatches = takeNextResult().iterator();
+         }
+         return true;
+      }
+
+      @Override
+      public Match next()
+      {
+         if (!hasNext()) throw new NoSuchElementException();
+         return fileMatches.next();
+      }
+
+      private void submit(final Path file)
+      {
+         final Callable<List<Match>> task = () -> lineReaders.get().search(file, encoding, lineMatcherFactory.get());
+         if (completionService == null) inFlight.addLast(executor.submit(task));
+         else completionService.submit(task);
+         inFlightCount++;
+      }
+
+      private List<Match> takeNextResult()
+      {
+         try
+         {
+            final Future<List<Match>> future = (completionService == null) ? inFlight.pollFirst() : completionService.take();
+            inFlightCount--;
+            return future.get();
+         }
+         catch (final InterruptedException interruptedException)
+         {
+            close();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a file to be searched", interruptedException);
+         }
+         catch (final ExecutionException executionException)
+         {
+            close();
+            if (executionException.getCause() instanceof RuntimeException) throw (RuntimeException) executionException.getCause();
+            throw new IllegalStateException(executionException.getCause());
+         }
+      }
+
+      /**
+       * Stops the threads. Any file being read is interrupted.
+       */
+      private void close()
+      {
+         executor.shutdownNow();
+      }
+   }
+
+   /**
+    * Reads lines into a reused buffer. Each thread has its own. The matches of a file are returned together as a list
+    * so that a thread can move on to the next file without waiting for the consumer.
+    */
+   private static final class LineReader
+   {
+      private final char[] buffer = new char[16 * 1024];
+      private final StringBuilder line = new StringBuilder(256);
+
+      /**
+       * Lines end with \n, \r, or \r\n the same as BufferedReader.readLine.
+       */
+      private List<Match> search(final Path file, final Charset encoding, final Predicate<StringBuilder> lineMatcher)
+      {
+         final List<Match> result = new ArrayList<>();
+         long lineNumber = 0;
+         boolean previousWasReturn = false;
+         line.setLength(0);
+         try (final Reader reader = new InputStreamReader(Files.newInputStream(file), encoding))
+         {
+            int readCount;
+            while ((readCount = reader.read(buffer)) != -1)
+            {
+               int lineStart = 0;
+               for (int i = 0; i < readCount; i++)
+               {
+                  final char thisChar = buffer[i];
+                  if (thisChar != '\n' && thisChar != '\r') continue;
+                  if (thisChar == '\n' && previousWasReturn && i == lineStart)
+                  {
+                     //the \n of \r\n
+                     previousWasReturn = false;
+                     lineStart = i + 1;
+                     continue;
+                  }
+                  line.append(buffer, lineStart, i - lineStart);
+                  lineNumber++;
+                  if (lineMatcher.test(line)) result.add(new Match(file, lineNumber, line.toString()));
+                  line.setLength(0);
+                  previousWasReturn = (thisChar == '\r');
+                  lineStart = i + 1;
+               }
+               if (lineStart < readCount)
+               {
+                  line.append(buffer, lineStart, readCount - lineStart);
+                  previousWasReturn = false;
+               }
+            }
+            if (line.length() != 0)
+            {
+               lineNumber++;
+               if (lineMatcher.test(line)) result.add(new Match(file, lineNumber, line.toString()));
+            }
+         }
+         catch (final IOException ioException)
+         {
+            throw new UncheckedIOException("Could not read " + file, ioException);
+         }
+         line.setLength(0);
+         //don't keep a huge line's capacity
+         if (line.capacity() > buffer.length) line.trimToSize();
+         return result;
+      }
+   }
+
+   /**
+    * A line that matched.
+    */
+   public static final class Match
+   {
+      private final Path file;
+      private final long lineNumber;
+      private final String line;
+
+      public Match(final Path file, final long lineNumber, final String line)
+      {
+         this.file = Objects.requireNonNull(file);
+         this.lineNumber = lineNumber;
+         this.line = Objects.requireNonNull(line);
+      }
+
+      public Path getFile()
+      {
+         return file;
+      }
+
+      /**
+       * @return the first line is 1
+       */
+      public long getLineNumber()
+      {
+         return lineNumber;
+      }
+
+      /**
+       * @return the line without the line terminator
+       */
+      public String getLine()
+      {
+         return line;
+      }
+
+      /**
+       * @return file:lineNumber:line
+       */
+      @Override
+      public String toString()
+      {
+         return file + ":" + lineNumber + ":" + line;
+      }
+   }
+}
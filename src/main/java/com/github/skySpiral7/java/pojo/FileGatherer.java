@@ -1,31 +1,74 @@
 package com.github.skySpiral7.java.pojo;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SecureDirectoryStream;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
-import javax.swing.filechooser.FileNameExtensionFilter;
 
 public final class FileGatherer
-      //I tested this class by hand since a UT would require a file system
 {
+   /**
+    * The default for maxSortedInMemory
+    */
+   public static final int DEFAULT_MAX_SORTED_IN_MEMORY = 1 << 20;
+   /**
+    * The most temporary files that are open at once while sorting a directory. A directory with more sorted runs than
+    * this is merged in multiple passes.
+    */
+   static final int MAX_MERGE_FAN_IN = 64;
+   /**
+    * The most paths that parallelSearch has found but not yet returned. Listing waits for the stream to catch up.
+    */
+   static final int MAX_QUEUED_PATHS = 1024;
+
    private Path rootFolder;
    private Predicate<Path> exploreCriteria;
    private Comparator<Path> pathOrder;
+   private int maxSortedInMemory;
+   private ForkJoinPool forkJoinPool;
 
    /*
     * @param rootFolder        the root which will be searched along with all subfolders
@@ -37,6 +80,8 @@ public final class FileGatherer
       rootFolder = Paths.get(".");
       exploreCriteria = Filters.ACCEPT_ALL;
       pathOrder = Comparator.naturalOrder();
+      maxSortedInMemory = DEFAULT_MAX_SORTED_IN_MEMORY;
+      forkJoinPool = ForkJoinPool.commonPool();
    }
 
    public Path getRootFolder()
@@ -49,11 +94,24 @@ public final class FileGatherer
       return exploreCriteria;
    }
 
+   /**
+    * @return null if the paths are unordered
+    */
    public Comparator<Path> getPathOrder()
    {
       return pathOrder;
    }
 
+   public int getMaxSortedInMemory()
+   {
+      return maxSortedInMemory;
+   }
+
+   public ForkJoinPool getForkJoinPool()
+   {
+      return forkJoinPool;
+   }
+
    public FileGatherer withRootFolder(final Path rootFolder)
    {
       Objects.requireNonNull(rootFolder);
@@ -91,6 +149,47 @@ public final class FileGatherer
       return this;
    }
 
+   /**
+    * The children of each directory will be returned in the order that the file system lists them. This is the fastest
+    * and search() will then only have 1 open directory per level instead of listing each directory first. Which means that
+    * the first path is found immediately even for a directory that has millions of entries.
+    *
+    * @see #withPathOrder(Comparator)
+    */
+   public FileGatherer withoutPathOrder()
+   {
+      this.pathOrder = null;
+      return this;
+   }
+
+   /**
+    * When search() finds a directory with more than this many entries they will be sorted in chunks of this size that
+    * are written to temporary files then merged (an external merge sort). This keeps the memory used bounded.
+    * At most {@value #MAX_MERGE_FAN_IN} of the temporary files are open at once (more are merged in multiple passes).
+    *
+    * @see #DEFAULT_MAX_SORTED_IN_MEMORY
+    */
+   public FileGatherer withMaxSortedInMemory(final int maxSortedInMemory)
+   {
+      if (maxSortedInMemory < 1) throw new IllegalArgumentException("maxSortedInMemory must be at least 1 but was " + maxSortedInMemory);
+      this.maxSortedInMemory = maxSortedInMemory;
+      return this;
+   }
+
+   /**
+    * The pool is only used by the parallel searches. Listing a directory mostly waits on the file system so a pool
+    * with more threads than cores can be faster for slow (such as network) drives.
+    *
+    * @see #parallelSearch()
+    * @see #parallelSearchInOrder()
+    */
+   public FileGatherer withForkJoinPool(final ForkJoinPool forkJoinPool)
+   {
+      Objects.requireNonNull(forkJoinPool);
+      this.forkJoinPool = forkJoinPool;
+      return this;
+   }
+
    /**
     * Also see Files.walk(Path) which does the same thing and might be more efficient but throws IOException.
     *
@@ -106,57 +205,727 @@ public final class FileGatherer
       return FileGatherer.search(rootFolder).filter(Filters.acceptExtensions(extensions));
    }
 
+   /**
+    * The stream can be made parallel in which case the directory traversal itself is divided between the threads.
+    * The order is the same either way. Directories are left open while being searched so the stream should be closed if
+    * it isn't fully used (just like Files.list).
+    *
+    * @see #withoutPathOrder()
+    * @see #withMaxSortedInMemory(int)
+    */
    public Stream<Path> search()
    {
-      return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new PathIterator(rootFolder, exploreCriteria, pathOrder),
-            //Although it is sorted don't set Spliterator.SORTED because the impl will incorrectly return null
-            Spliterator.ORDERED | Spliterator.NONNULL), false);
+      final Predicate<Path> exploreCriteria = this.exploreCriteria;
+      final Comparator<Path> pathOrder = this.pathOrder;
+      final int maxSortedInMemory = this.maxSortedInMemory;
+      final Set<Closeable> openResources = ConcurrentHashMap.newKeySet();
+      return StreamSupport.stream(new TreeSpliterator<>(rootFolder, path -> {
+         if (!Files.isDirectory(path) || !exploreCriteria.test(path)) return new Siblings<>(new ArrayDeque<>(0));
+         if (pathOrder == null) return streamDirectory(path, openResources);
+         return sortDirectory(path, pathOrder, maxSortedInMemory, openResources);
+      }), false).onClose(() -> openResources.forEach(Siblings::closeResource));
+   }
+
+   /**
+    * Finds the same paths in the same order as {@link #search()} except that the attributes of each path are read once
+    * (relative to the open directory when the file system supports SecureDirectoryStream) and returned with the path.
+    * Filtering with {@link AttributeFilters} then doesn't need to read the attributes again which saves a system call per
+    * filter per path. Symbolic links are followed (like Files.isDirectory) unless they are broken. A path that is deleted
+    * while it is being listed is skipped.
+    *
+    * @see AttributeFilters
+    */
+   public Stream<AttributedPath> searchWithAttributes()
+   {
+      final AttributedPath root;
+      try
+      {
+         root = new AttributedPath(rootFolder, Files.readAttributes(rootFolder, BasicFileAttributes.class));
+      }
+      catch (final IOException ioException)
+      {
+         throw new UncheckedIOException("Could not read attributes of " + rootFolder, ioException);
+      }
+      final Predicate<Path> exploreCriteria = this.exploreCriteria;
+      final Comparator<AttributedPath> attributedOrder = (pathOrder == null) ? null
+            : Comparator.comparing(AttributedPath::getPath, pathOrder);
+      return StreamSupport.stream(new TreeSpliterator<>(root, found -> {
+         if (!found.getAttributes().isDirectory() || !exploreCriteria.test(found.getPath())) return new Siblings<>(new ArrayDeque<>(0));
+         final List<AttributedPath> children = listDirectoryWithAttributes(found.getPath());
+         if (attributedOrder != null) children.sort(attributedOrder);
+         return new Siblings<>(new ArrayDeque<>(children));
+      }), false);
+   }
+
+   /**
+    * Finds the same paths as {@link #search()} except that directories are listed concurrently on the forkJoinPool.
+    * The paths are returned in no particular order (each as soon as it is found) since that has the best throughput.
+    * Therefore exploreCriteria must be thread safe and pathOrder is not used. At most {@value #MAX_QUEUED_PATHS} found
+    * paths wait to be returned: after that listing waits for the stream to catch up. Therefore the stream must be closed
+    * if it isn't fully used, which stops the listing (else the waiting tasks will wait forever).
+    *
+    * @see #parallelSearchInOrder()
+    * @see #withForkJoinPool(ForkJoinPool)
+    */
+   public Stream<Path> parallelSearch()
+   {
+      final UnorderedWalk walk = new UnorderedWalk(rootFolder, exploreCriteria, forkJoinPool);
+      return StreamSupport.stream(Spliterators.spliteratorUnknownSize(walk, Spliterator.DISTINCT | Spliterator.NONNULL), false)
+            .onClose(walk::close);
+   }
+
+   /**
+    * Finds the same paths in the same order as {@link #search()} except that directories are listed concurrently on the
+    * forkJoinPool. The results of each directory are merged in pathOrder (the same as search) which means that the entire
+    * tree is gathered before the first path is returned. Both exploreCriteria and pathOrder must be thread safe.
+    * If there is no pathOrder then each directory is in the order that the file system listed it.
+    *
+    * @see #parallelSearch()
+    * @see #withForkJoinPool(ForkJoinPool)
+    */
+   public Stream<Path> parallelSearchInOrder()
+   {
+      return forkJoinPool.invoke(new OrderedListTask(rootFolder, exploreCriteria, pathOrder)).stream();
+   }
+
+   private static List<Path> listDirectory(final Path directory)
+   {
+      try (final Stream<Path> children = Files.list(directory))
+      {
+         return children.collect(Collectors.toList());
+      }
+      catch (final IOException ioException)
+      {
+         throw new UncheckedIOException("Could not open directory " + directory, ioException);
+      }
+   }
+
+   private static Siblings<Path> streamDirectory(final Path directory, final Set<Closeable> openResources)
+   {
+      final DirectoryStream<Path> children;
+      try
+      {
+         children = Files.newDirectoryStream(directory);
+      }
+      catch (final IOException ioException)
+      {
+         throw new UncheckedIOException("Could not open directory " + directory, ioException);
+      }
+      return new Siblings<>(new ArrayDeque<>(0), children.iterator(), children, openResources);
+   }
+
+   private static Siblings<Path> sortDirectory(final Path directory, final Comparator<Path> pathOrder, final int maxSortedInMemory,
+                                               final Set<Closeable> openResources)
+   {
+      try (final DirectoryStream<Path> children = Files.newDirectoryStream(directory))
+      {
+         final Iterator<Path> childIterator = children.iterator();
+         final List<Path> chunk = new ArrayList<>();
+         while (chunk.size() < maxSortedInMemory && childIterator.hasNext()){ chunk.add(childIterator.next()); }
+         if (!childIterator.hasNext())
+         {
+            chunk.sort(pathOrder);
+            return new Siblings<>(new ArrayDeque<>(chunk));
+         }
+
+         final SortedRuns sortedRuns = new SortedRuns(directory, pathOrder);
+         try
+         {
+            while (!chunk.isEmpty())
+            {
+               sortedRuns.write(chunk);
+               chunk.clear();
+               while (chunk.size() < maxSortedInMemory && childIterator.hasNext()){ chunk.add(childIterator.next()); }
+            }
+            return new Siblings<>(new ArrayDeque<>(0), sortedRuns.merge(), sortedRuns, openResources);
+         }
+         catch (final IOException | RuntimeException exception)
+         {
+            sortedRuns.close();
+            throw exception;
+         }
+      }
+      catch (final IOException ioException)
+      {
+         throw new UncheckedIOException("Could not sort directory " + directory, ioException);
+      }
    }
 
-   private static class PathIterator implements Iterator<Path>
+   private static List<AttributedPath> listDirectoryWithAttributes(final Path directory)
    {
-      private final Deque<Path> remaining = new ArrayDeque<>(32);
+      try (final DirectoryStream<Path> children = Files.newDirectoryStream(directory))
+      {
+         //a secure stream reads the attributes relative to the open directory so the path isn't resolved again
+         final SecureDirectoryStream<Path> openDirectory = (children instanceof SecureDirectoryStream)
+               ? (SecureDirectoryStream<Path>) children : null;
+         final List<AttributedPath> result = new ArrayList<>();
+         for (final Path child : children)
+         {
+            try
+            {
+               result.add(new AttributedPath(child, readAttributes(openDirectory, child)));
+            }
+            catch (final NoSuchFileException brokenLink)
+            {
+               try
+               {
+                  result.add(new AttributedPath(child, readAttributes(openDirectory, child, LinkOption.NOFOLLOW_LINKS)));
+               }
+               catch (final NoSuchFileException deleted)
+               {
+                  //it was deleted after being listed so it isn't found
+               }
+            }
+         }
+         return result;
+      }
+      catch (final IOException ioException)
+      {
+         throw new UncheckedIOException("Could not open directory " + directory, ioException);
+      }
+   }
+
+   private static BasicFileAttributes readAttributes(final SecureDirectoryStream<Path> openDirectory, final Path child,
+                                                     final LinkOption... options) throws IOException
+   {
+      if (openDirectory == null) return Files.readAttributes(child, BasicFileAttributes.class, options);
+      return openDirectory.getFileAttributeView(child.getFileName(), BasicFileAttributeView.class, options).readAttributes();
+   }
+
+   private static final class UnorderedWalk implements Iterator<Path>
+   {
+      /**
+       * Marks that every task is done. It is compared by identity so it can't be confused with a found path.
+       */
+      private static final Path END_OF_WALK = Paths.get("");
+      private final BlockingQueue<Path> found = new LinkedBlockingQueue<>(MAX_QUEUED_PATHS);
       private final Predicate<Path> exploreCriteria;
-      private final Comparator<Path> pathOrder;
+      private final ForkJoinTask<?> rootTask;
+      private volatile boolean isClosed = false;
+      private Path nextPath;
 
-      private PathIterator(final Path rootFolder, final Predicate<Path> exploreCriteria, final Comparator<Path> pathOrder)
+      private UnorderedWalk(final Path rootFolder, final Predicate<Path> exploreCriteria, final ForkJoinPool forkJoinPool)
       {
-         remaining.add(rootFolder);
          this.exploreCriteria = exploreCriteria;
-         //pathOrder is reversed because next() always uses the last element
-         this.pathOrder = pathOrder.reversed();
+         found.add(rootFolder);
+         rootTask = forkJoinPool.submit(() -> {
+            try
+            {
+               new ListTask(rootFolder).invoke();
+            }
+            finally
+            {
+               put(END_OF_WALK);
+            }
+         });
       }
 
       @Override
       public boolean hasNext()
       {
-         return !remaining.isEmpty();
+         if (nextPath == null)
+         {
+            try
+            {
+               nextPath = found.take();
+            }
+            catch (final InterruptedException interruptedException)
+            {
+               Thread.currentThread().interrupt();
+               throw new IllegalStateException("Interrupted while waiting for a directory to be listed", interruptedException);
+            }
+            //if a directory couldn't be opened then join will throw that exception
+            if (nextPath == END_OF_WALK) rootTask.join();
+         }
+         return nextPath != END_OF_WALK;
       }
 
       @Override
       public Path next()
       {
-         final Path thisPath = remaining.pollLast();
+         if (!hasNext()) throw new NoSuchElementException();
+         final Path thisPath = nextPath;
+         nextPath = null;
+         return thisPath;
+      }
+
+      private void close()
+      {
+         isClosed = true;
+         rootTask.cancel(false);
+         //any task waiting for room will then see isClosed
+         found.clear();
+      }
+
+      /**
+       * Waits until the path fits in the queue. The path is dropped if closed (since nothing will take it).
+       */
+      private void put(final Path path)
+      {
          try
          {
-            if (Files.isDirectory(thisPath) && exploreCriteria.test(thisPath))
-               remaining.addAll(Files.list(thisPath).sorted(pathOrder).collect(Collectors.toList()));
-            return thisPath;
+            //managed so that the pool can add a thread while this one waits
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker()
+            {
+               @Override
+               public boolean block() throws InterruptedException
+               {
+                  //times out so that closing is noticed even if the queue is full again
+                  while (!isClosed && !found.offer(path, 100, TimeUnit.MILLISECONDS)){}
+                  return true;
+               }
+
+               @Override
+               public boolean isReleasable()
+               {
+                  return isClosed || found.offer(path);
+               }
+            });
+         }
+         catch (final InterruptedException interruptedException)
+         {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the found paths to be returned", interruptedException);
+         }
+      }
+
+      private final class ListTask extends RecursiveAction
+      {
+         private static final long serialVersionUID = 1L;
+         private final Path thisPath;
+
+         private ListTask(final Path thisPath)
+         {
+            this.thisPath = thisPath;
+         }
+
+         @Override
+         protected void compute()
+         {
+            if (isClosed || !Files.isDirectory(thisPath) || !exploreCriteria.test(thisPath)) return;
+            final List<Path> children = listDirectory(thisPath);
+            for (final Path child : children)
+            {
+               if (isClosed) return;
+               put(child);
+            }
+            //each child gets a task since even checking if it is a directory can be slow
+            final List<ListTask> childTasks = new ArrayList<>(children.size());
+            children.forEach(child -> childTasks.add(new ListTask(child)));
+            ForkJoinTask.invokeAll(childTasks);
+         }
+      }
+   }
+
+   private static final class OrderedListTask extends RecursiveTask<List<Path>>
+   {
+      private static final long serialVersionUID = 1L;
+      private final Path thisPath;
+      private final Predicate<Path> exploreCriteria;
+      private final Comparator<Path> pathOrder;
+
+      private OrderedListTask(final Path thisPath, final Predicate<Path> exploreCriteria, final Comparator<Path> pathOrder)
+      {
+         this.thisPath = thisPath;
+         this.exploreCriteria = exploreCriteria;
+         this.pathOrder = pathOrder;
+      }
+
+      @Override
+      protected List<Path> compute()
+      {
+         final List<Path> result = new ArrayList<>();
+         result.add(thisPath);
+         if (!Files.isDirectory(thisPath) || !exploreCriteria.test(thisPath)) return result;
+
+         final List<Path> children = listDirectory(thisPath);
+         if (pathOrder != null) children.sort(pathOrder);
+         final List<OrderedListTask> childTasks = new ArrayList<>(children.size());
+         children.forEach(child -> childTasks.add(new OrderedListTask(child, exploreCriteria, pathOrder)));
+         ForkJoinTask.invokeAll(childTasks);
+         //each child is followed by its own sub tree which is the same order as PathSpliterator
+         childTasks.forEach(childTask -> result.addAll(childTask.join()));
+         return result;
+      }
+   }
+
+   /**
+    * Walks the tree depth first. Each element of remaining holds the siblings that haven't been returned yet
+    * (in order) and the last element is the deepest directory. Each element is a contiguous part of the encounter
+    * order and the deepest elements come first, therefore trySplit can hand off the deepest elements (as the prefix)
+    * so that a parallel stream divides the traversal itself without changing the order.
+    *
+    * @param <T> either a Path or a Path with more information
+    */
+   private static final class TreeSpliterator<T> implements Spliterator<T>
+   {
+      private final Deque<Siblings<T>> remaining;
+      /**
+       * Returns the children in order or no siblings if the element isn't a directory that should be explored.
+       */
+      private final Function<T, Siblings<T>> childLister;
+      /**
+       * An element that trySplit has already explored but hasn't been returned yet. It comes before everything in remaining.
+       */
+      private T exploredElement;
+
+      private TreeSpliterator(final T rootElement, final Function<T, Siblings<T>> childLister)
+      {
+         this(new ArrayDeque<>(32), null, childLister);
+         final Deque<T> rootOnly = new ArrayDeque<>(1);
+         rootOnly.add(rootElement);
+         remaining.add(new Siblings<>(rootOnly));
+      }
+
+      private TreeSpliterator(final Deque<Siblings<T>> remaining, final T exploredElement, final Function<T, Siblings<T>> childLister)
+      {
+         this.remaining = remaining;
+         this.exploredElement = exploredElement;
+         this.childLister = childLister;
+      }
+
+      @Override
+      public boolean tryAdvance(final Consumer<? super T> action)
+      {
+         if (exploredElement != null)
+         {
+            final T thisElement = exploredElement;
+            exploredElement = null;
+            action.accept(thisElement);
+            return true;
+         }
+         if (remaining.isEmpty()) return false;
+
+         final Siblings<T> siblings = remaining.peekLast();
+         final T thisElement = siblings.next();
+         //remove before adding the children so that remaining never contains empty siblings
+         if (!siblings.hasNext()) remaining.pollLast().close();
+         addChildren(thisElement);
+         action.accept(thisElement);
+         return true;
+      }
+
+      @Override
+      public Spliterator<T> trySplit()
+      {
+         if (remaining.size() > 1)
+         {
+            final Deque<Siblings<T>> prefix = new ArrayDeque<>(32);
+            for (int i = remaining.size() / 2; i > 0; i--){ prefix.addFirst(remaining.pollLast()); }
+            return handOff(prefix);
+         }
+         if (remaining.isEmpty()) return null;
+
+         Siblings<T> prefixSiblings = remaining.peekLast().splitFirstHalf();
+         if (prefixSiblings == null && exploredElement == null)
+         {
+            //a lone directory (such as the root) needs to be listed so that its children can be split
+            final Siblings<T> lone = remaining.pollLast();
+            exploredElement = lone.next();
+            lone.close();
+            addChildren(exploredElement);
+            if (remaining.isEmpty()) return null;
+            prefixSiblings = remaining.peekLast().splitFirstHalf();
+         }
+         if (prefixSiblings == null) return null;
+
+         final Deque<Siblings<T>> prefix = new ArrayDeque<>(32);
+         prefix.add(prefixSiblings);
+         return handOff(prefix);
+      }
+
+      private TreeSpliterator<T> handOff(final Deque<Siblings<T>> prefix)
+      {
+         //exploredElement comes before everything else so it is always part of the prefix
+         final TreeSpliterator<T> result = new TreeSpliterator<>(prefix, exploredElement, childLister);
+         exploredElement = null;
+         return result;
+      }
+
+      private void addChildren(final T parent)
+      {
+         final Siblings<T> children = childLister.apply(parent);
+         if (children.hasNext()) remaining.addLast(children);
+         else children.close();
+      }
+
+      @Override
+      public long estimateSize()
+      {
+         return Long.MAX_VALUE;
+      }
+
+      @Override
+      public int characteristics()
+      {
+         //Although it is sorted don't set Spliterator.SORTED because the impl will incorrectly return null
+         return Spliterator.ORDERED | Spliterator.NONNULL;
+      }
+   }
+
+   /**
+    * The children of a directory that haven't been returned yet (in order). They are either all in memory or are
+    * read from an open resource (such as a directory stream) as needed.
+    */
+   private static final class Siblings<T> implements Closeable
+   {
+      /**
+       * How many unread siblings are read when splitting since the total is unknown
+       */
+      private static final int SPLIT_BATCH_SIZE = 1024;
+      private final Deque<T> buffered;
+      private final Iterator<T> unread;
+      private final Closeable resource;
+      private final Set<Closeable> openResources;
+
+      private Siblings(final Deque<T> allSiblings)
+      {
+         this(allSiblings, Collections.emptyIterator(), null, null);
+      }
+
+      /**
+       * @param resource      is closed once all of the siblings have been read
+       * @param openResources resource is added to this set while it is open
+       */
+      private Siblings(final Deque<T> buffered, final Iterator<T> unread, final Closeable resource, final Set<Closeable> openResources)
+      {
+         this.buffered = buffered;
+         this.unread = unread;
+         this.resource = resource;
+         this.openResources = openResources;
+         if (resource != null) openResources.add(resource);
+      }
+
+      private boolean hasNext()
+      {
+         return !buffered.isEmpty() || unread.hasNext();
+      }
+
+      private T next()
+      {
+         if (!buffered.isEmpty()) return buffered.pollFirst();
+         return unread.next();
+      }
+
+      /**
+       * @return the first half of the siblings (which are removed from this) or null if there aren't at least 2 siblings
+       */
+      private Siblings<T> splitFirstHalf()
+      {
+         while (buffered.size() < SPLIT_BATCH_SIZE && unread.hasNext()){ buffered.addLast(unread.next()); }
+         //if there are more unread then all of the buffered are handed off
+         final int prefixSize = unread.hasNext() ? buffered.size() : (buffered.size() / 2);
+         if (prefixSize == 0) return null;
+         final Deque<T> prefix = new ArrayDeque<>(prefixSize);
+         for (int i = 0; i < prefixSize; i++){ prefix.addLast(buffered.pollFirst()); }
+         return new Siblings<>(prefix);
+      }
+
+      @Override
+      public void close()
+      {
+         if (resource == null) return;
+         openResources.remove(resource);
+         closeResource(resource);
+      }
+
+      private static void closeResource(final Closeable resource)
+      {
+         try
+         {
+            resource.close();
          }
          catch (final IOException ioException)
          {
-            throw new UncheckedIOException("Could not open directory " + thisPath, ioException);
+            throw new UncheckedIOException(ioException);
          }
       }
    }
 
+   /**
+    * An external merge sort of a directory's children. Each chunk is sorted in memory then the file names are written
+    * to a temporary file. Merging the files only needs the next path of each file to be in memory. If there are more than
+    * MAX_MERGE_FAN_IN files then the earliest are merged into a new file (repeatedly) so that only that many are open.
+    */
+   private static final class SortedRuns implements Closeable
+   {
+      private final Path directory;
+      private final Comparator<Path> pathOrder;
+      private final List<Path> runFiles = new ArrayList<>();
+      /**
+       * The number of paths in each run file (same index as runFiles)
+       */
+      private final List<Integer> runSizes = new ArrayList<>();
+      private final List<DataInputStream> openRuns = new ArrayList<>();
+
+      private SortedRuns(final Path directory, final Comparator<Path> pathOrder)
+      {
+         this.directory = directory;
+         this.pathOrder = pathOrder;
+      }
+
+      private void write(final List<Path> chunk) throws IOException
+      {
+         chunk.sort(pathOrder);
+         writeRun(chunk.iterator(), chunk.size());
+      }
+
+      /**
+       * @param sortedPaths must have exactly size elements
+       */
+      private void writeRun(final Iterator<Path> sortedPaths, final int size) throws IOException
+      {
+         final Path runFile = Files.createTempFile("FileGatherer", ".run");
+         runFiles.add(runFile);
+         runSizes.add(size);
+         try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(runFile))))
+         {
+            output.writeInt(size);
+            for (int i = 0; i < size; i++){ output.writeUTF(sortedPaths.next().getFileName().toString()); }
+         }
+      }
+
+      private Iterator<Path> merge() throws IOException
+      {
+         while (runFiles.size() > MAX_MERGE_FAN_IN)
+         {
+            //the new run is added to the end so every run is merged about the same number of times
+            final List<Path> batch = new ArrayList<>(runFiles.subList(0, MAX_MERGE_FAN_IN));
+            int batchSize = 0;
+            for (final int runSize : runSizes.subList(0, MAX_MERGE_FAN_IN)){ batchSize += runSize; }
+            writeRun(open(batch), batchSize);
+            for (final DataInputStream input : openRuns){ input.close(); }
+            openRuns.clear();
+            for (final Path runFile : batch){ Files.delete(runFile); }
+            runFiles.subList(0, MAX_MERGE_FAN_IN).clear();
+            runSizes.subList(0, MAX_MERGE_FAN_IN).clear();
+         }
+         return open(runFiles);
+      }
+
+      /**
+       * Opens each run file (which are closed by close).
+       *
+       * @return the paths of every run merged in pathOrder
+       */
+      private Iterator<Path> open(final List<Path> runsToMerge) throws IOException
+      {
+         final PriorityQueue<RunHead> heads = new PriorityQueue<>(runsToMerge.size(), (a, b) -> pathOrder.compare(a.path, b.path));
+         for (final Path runFile : runsToMerge)
+         {
+            final DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(runFile)));
+            openRuns.add(input);
+            final RunHead head = new RunHead(input);
+            if (head.advance()) heads.add(head);
+         }
+         return new Iterator<Path>()
+         {
+            @Override
+            public boolean hasNext()
+            {
+               return !heads.isEmpty();
+            }
+
+            @Override
+            public Path next()
+            {
+               if (heads.isEmpty()) throw new NoSuchElementException();
+               final RunHead head = heads.poll();
+               final Path result = head.path;
+               if (head.advance()) heads.add(head);
+               return result;
+            }
+         };
+      }
+
+      /**
+       * Closes and deletes every temporary file. Calling this more than once has no effect.
+       */
+      @Override
+      public void close() throws IOException
+      {
+         for (final DataInputStream input : openRuns){ input.close(); }
+         openRuns.clear();
+         for (final Path runFile : runFiles){ Files.deleteIfExists(runFile); }
+         runFiles.clear();
+         runSizes.clear();
+      }
+
+      private final class RunHead
+      {
+         private final DataInputStream input;
+         private int remainingCount = -1;
+         private Path path;
+
+         private RunHead(final DataInputStream input)
+         {
+            this.input = input;
+         }
+
+         /**
+          * @return false if there are no more paths in this run
+          */
+         private boolean advance()
+         {
+            try
+            {
+               if (remainingCount == -1) remainingCount = input.readInt();
+               if (remainingCount == 0) return false;
+               remainingCount--;
+               path = directory.resolve(input.readUTF());
+               return true;
+            }
+            catch (final IOException ioException)
+            {
+               throw new UncheckedIOException("Could not read the sorted entries of " + directory, ioException);
+            }
+         }
+      }
+   }
+
+   /**
+    * A path and the attributes that were read while searching. The attributes are not updated.
+    *
+    * @see #searchWithAttributes()
+    */
+   public static final class AttributedPath
+   {
+      private final Path path;
+      private final BasicFileAttributes attributes;
+
+      public AttributedPath(final Path path, final BasicFileAttributes attributes)
+      {
+         this.path = Objects.requireNonNull(path);
+         this.attributes = Objects.requireNonNull(attributes);
+      }
+
+      public Path getPath()
+      {
+         return path;
+      }
+
+      public BasicFileAttributes getAttributes()
+      {
+         return attributes;
+      }
+
+      /**
+       * @return only the path
+       */
+      @Override
+      public String toString()
+      {
+         return path.toString();
+      }
+   }
+
    public static final class Filters
    {
       public static final Predicate<Path> ACCEPT_ALL = path -> true;
       public static final Predicate<Path> EXCLUDE_HIDDEN = path -> {
          try
          {
-            return Files.isHidden(path);
+            return !Files.isHidden(path);
          }
          catch (IOException ioException)
          {
@@ -167,17 +936,81 @@ public final class FileGatherer
 
       private Filters(){}
 
+      /**
+       * @return accepts regular files that have one of the extensions (ignoring case)
+       * @see FileNameMatcher#ofExtensions(String...)
+       */
       public static Predicate<Path> acceptExtensions(final String... extensions)
       {
-         //the name isn't required and it can't be seen
-         final FileNameExtensionFilter extensionFilter = new FileNameExtensionFilter(null, extensions);
-         //notice how extensionFilter is only created once and used for each call to accept
-         return path -> (Files.isRegularFile(path) && extensionFilter.accept(path.toFile()));
+         //notice how extensionMatcher is only created once and used for each call to test
+         final FileNameMatcher extensionMatcher = FileNameMatcher.ofExtensions(extensions);
+         //checking the name first is cheaper than checking the file system
+         return path -> (extensionMatcher.test(path) && Files.isRegularFile(path));
       }
 
       public static Predicate<Path> acceptNamePattern(final Pattern pattern)
       {
-         return path -> pattern.matcher(path.toFile().getName()).find();
+         return path -> pattern.matcher(getFileName(path)).find();
+      }
+
+      /**
+       * @return the file name or an empty string for a root (which is the same as File.getName)
+       */
+      static String getFileName(final Path path)
+      {
+         final Path fileName = path.getFileName();
+         if (fileName == null) return "";
+         return fileName.toString();
+      }
+   }
+
+   /**
+    * The same as {@link Filters} except that they use the attributes that were already read instead of reading them again.
+    *
+    * @see #searchWithAttributes()
+    */
+   public static final class AttributeFilters
+   {
+      public static final Predicate<AttributedPath> ACCEPT_ALL = found -> true;
+      public static final Predicate<AttributedPath> EXCLUDE_DIRECTORIES = found -> found.getAttributes().isRegularFile();
+      public static final Predicate<AttributedPath> ONLY_DIRECTORIES = found -> found.getAttributes().isDirectory();
+      /**
+       * The same as {@link Filters#EXCLUDE_HIDDEN}: hidden is the DOS attribute when the file system has it (Windows)
+       * else a name that starts with a dot.
+       */
+      public static final Predicate<AttributedPath> EXCLUDE_HIDDEN = found -> {
+         if (found.getAttributes() instanceof DosFileAttributes) return !((DosFileAttributes) found.getAttributes()).isHidden();
+         return !Filters.getFileName(found.getPath()).startsWith(".");
+      };
+
+      private AttributeFilters(){}
+
+      public static Predicate<AttributedPath> acceptExtensions(final String... extensions)
+      {
+         final FileNameMatcher extensionMatcher = FileNameMatcher.ofExtensions(extensions);
+         return found -> (found.getAttributes().isRegularFile() && extensionMatcher.test(found.getPath()));
+      }
+
+      public static Predicate<AttributedPath> acceptNamePattern(final Pattern pattern)
+      {
+         return found -> pattern.matcher(Filters.getFileName(found.getPath())).find();
+      }
+
+      /**
+       * @return accepts regular files that are at least minimumBytes in size
+       */
+      public static Predicate<AttributedPath> acceptMinimumSize(final long minimumBytes)
+      {
+         return found -> (found.getAttributes().isRegularFile() && found.getAttributes().size() >= minimumBytes);
+      }
+
+      /**
+       * @return accepts paths that were last modified after the time given
+       */
+      public static Predicate<AttributedPath> acceptModifiedAfter(final FileTime time)
+      {
+         Objects.requireNonNull(time);
+         return found -> (found.getAttributes().lastModifiedTime().compareTo(time) > 0);
       }
    }
 }
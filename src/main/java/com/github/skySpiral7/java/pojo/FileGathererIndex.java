@@ -0,0 +1,393 @@
+package com.github.skySpiral7.java.pojo;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>An index file of every path in a folder (and all sub folders) so that searching by file name doesn't need to
+ * walk the file system. The index is memory mapped and is compact: the paths are sorted and front coded (each path
+ * only stores what is different from the previous path) followed by the type, size, and last modified time.</p>
+ *
+ * <p>The index doesn't change by itself. Calling {@link #refresh()} uses the directories' last modified times (the same as
+ * {@link IncrementalFileGatherer}) to find what changed and only rewrites the index if something did.</p>
+ *
+ * <p>Example: {@code FileGathererIndex.build(root, indexFile).searchForExtensions("txt")}</p>
+ *
+ * @see FileGatherer
+ * @see IncrementalFileGatherer
+ */
+public final class FileGathererIndex implements Closeable
+{
+   private static final int MAGIC_NUMBER = 0x46474958;  //FGIX
+   private static final int INDEX_FORMAT_VERSION = 1;
+
+   private final Path indexFile;
+   private Path rootFolder;
+   private int entryCount;
+   /**
+    * Starts at the first entry. Each search uses a duplicate so that searches are independent. Null once closed.
+    */
+   private ByteBuffer entries;
+
+   private FileGathererIndex(final Path indexFile)
+   {
+      this.indexFile = indexFile;
+      map();
+   }
+
+   /**
+    * Searches every path in rootFolder and writes the index to indexFile (replacing it).
+    */
+   public static FileGathererIndex build(final Path rootFolder, final Path indexFile)
+   {
+      final IncrementalFileGatherer gatherer = new IncrementalFileGatherer(rootFolder);
+      gatherer.scan();
+      write(gatherer, indexFile);
+      return new FileGathererIndex(indexFile);
+   }
+
+   /**
+    * Opens an index that was previously built. Nothing is checked against the file system.
+    *
+    * @see #refresh()
+    */
+   public static FileGathererIndex open(final Path indexFile)
+   {
+      return new FileGathererIndex(indexFile);
+   }
+
+   public Path getIndexFile()
+   {
+      return indexFile;
+   }
+
+   public Path getRootFolder()
+   {
+      return rootFolder;
+   }
+
+   /**
+    * @return the number of paths in the index (including the root)
+    */
+   public int size()
+   {
+      return entryCount;
+   }
+
+   /**
+    * Updates the index to match the file system. Directories that haven't changed aren't listed again.
+    *
+    * @return what changed since the index was built or refreshed
+    */
+   public List<IncrementalFileGatherer.Change> refresh()
+   {
+      final IncrementalFileGatherer gatherer = new IncrementalFileGatherer(rootFolder);
+      final EntryIterator iterator = new EntryIterator(openEntries().duplicate(), entryCount, rootFolder.getFileSystem());
+      while (iterator.hasNext())
+      {
+         iterator.advance();
+         gatherer.restore(iterator.toPath(), iterator.type, iterator.size, iterator.lastModified);
+      }
+      gatherer.linkRestoredChildren();
+
+      final List<IncrementalFileGatherer.Change> changes = gatherer.scan();
+      if (!changes.isEmpty())
+      {
+         write(gatherer, indexFile);
+         map();
+      }
+      return changes;
+   }
+
+   /**
+    * @return every path in the index (sorted by the path's string)
+    */
+   public Stream<Path> search()
+   {
+      return search(fileName -> true, false);
+   }
+
+   /**
+    * The same as using {@link FileGatherer.Filters#acceptExtensions(String...)} except that no file is read.
+    *
+    * @return the regular files that have one of the extensions (ignoring case)
+    */
+   public Stream<Path> searchForExtensions(final String... extensions)
+   {
+      return search(FileNameMatcher.ofExtensions(extensions)::matchesName, true);
+   }
+
+   /**
+    * The same as using {@link FileGatherer.Filters#acceptNamePattern(Pattern)} except that no file is read.
+    */
+   public Stream<Path> searchForNamePattern(final Pattern pattern)
+   {
+      return search(fileName -> pattern.matcher(fileName).find(), false);
+   }
+
+   /**
+    * @param fileNameFilter only given the file name (without parent folders). Such as {@link FileNameMatcher#matchesName(String)}
+    * @param onlyFiles      if true then directories are excluded (and are not given to fileNameFilter)
+    *
+    * @return the matching paths (sorted by the path's string)
+    */
+   public Stream<Path> search(final Predicate<String> fileNameFilter, final boolean onlyFiles)
+   {
+      Objects.requireNonNull(fileNameFilter);
+      final EntryIterator iterator = new EntryIterator(openEntries().duplicate(), entryCount, rootFolder.getFileSystem());
+      final Iterator<Path> matches = new Iterator<Path>()
+      {
+         private Path nextMatch;
+
+         @Override
+         public boolean hasNext()
+         {
+            while (nextMatch == null && iterator.hasNext())
+            {
+               iterator.advance();
+               if (onlyFiles && iterator.type != IncrementalFileGatherer.TYPE_FILE) continue;
+               if (fileNameFilter.test(iterator.getFileName())) nextMatch = iterator.toPath();
+            }
+            return nextMatch != null;
+         }
+
+         @Override
+         public Path next()
+         {
+            if (!hasNext()) throw new NoSuchElementException();
+            final Path result = nextMatch;
+            nextMatch = null;
+            return result;
+         }
+      };
+      return StreamSupport.stream(Spliterators.spliteratorUnknownSize(matches,
+            Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+   }
+
+   /**
+    * Doesn't delete the index file. A memory mapped file can't be explicitly unmapped so it will be when garbage collected.
+    * Searching or refreshing afterward throws IllegalStateException.
+    */
+   @Override
+   public void close()
+   {
+      entries = null;
+   }
+
+   private ByteBuffer openEntries()
+   {
+      final ByteBuffer result = entries;
+      if (result == null) throw new IllegalStateException("closed");
+      return result;
+   }
+
+   private void map()
+   {
+      try (final FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ))
+      {
+         final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+         if (mapped.getInt() != MAGIC_NUMBER) throw new IllegalArgumentException(indexFile + " isn't an index file");
+         final int version = mapped.getInt();
+         if (version != INDEX_FORMAT_VERSION)
+            throw new IllegalArgumentException(indexFile + " has an unsupported index format version: " + version);
+         final byte[] rootBytes = new byte[mapped.getInt()];
+         mapped.get(rootBytes);
+         rootFolder = Paths.get(new String(rootBytes, StandardCharsets.UTF_8));
+         entryCount = mapped.getInt();
+         entries = mapped.slice();
+      }
+      catch (final BufferUnderflowException underflowException)
+      {
+         throw new IllegalArgumentException(indexFile + " is truncated", underflowException);
+      }
+      catch (final IOException ioException)
+      {
+         throw new UncheckedIOException("Could not open index " + indexFile, ioException);
+      }
+   }
+
+   /**
+    * Writes to a temporary file then replaces indexFile so that a failure doesn't corrupt the index.
+    */
+   private static void write(final IncrementalFileGatherer gatherer, final Path indexFile)
+   {
+      final Path absoluteIndexFile = indexFile.toAbsolutePath();
+      Path tempFile = null;
+      try
+      {
+         final List<Entry> allEntries = new ArrayList<>();
+         gatherer.forEachSnapshot((path, type, size, lastModified) ->
+               allEntries.add(new Entry(path.toString().getBytes(StandardCharsets.UTF_8), type, size, lastModified)));
+         //sorting puts paths with the same parent next to each other which is what makes front coding compact
+         Collections.sort(allEntries);
+
+         tempFile = Files.createTempFile(absoluteIndexFile.getParent(), absoluteIndexFile.getFileName().toString(), ".tmp");
+         try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile))))
+         {
+            output.writeInt(MAGIC_NUMBER);
+            output.writeInt(INDEX_FORMAT_VERSION);
+            final byte[] rootBytes = gatherer.getRootFolder().toString().getBytes(StandardCharsets.UTF_8);
+            output.writeInt(rootBytes.length);
+            output.write(rootBytes);
+            output.writeInt(allEntries.size());
+
+            byte[] previousPath = new byte[0];
+            for (final Entry entry : allEntries)
+            {
+               final int sharedLength = Arrays.mismatch(previousPath, entry.pathBytes);
+               //mismatch is -1 if they are equal (which is impossible) or the length of the shorter if one is a prefix
+               writeVarInt(output, sharedLength);
+               writeVarInt(output, entry.pathBytes.length - sharedLength);
+               output.write(entry.pathBytes, sharedLength, entry.pathBytes.length - sharedLength);
+               output.writeByte(entry.type);
+               output.writeLong(entry.size);
+               output.writeLong(entry.lastModified);
+               previousPath = entry.pathBytes;
+            }
+         }
+         Files.move(tempFile, absoluteIndexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+      catch (final IOException ioException)
+      {
+         try
+         {
+            if (tempFile != null) Files.deleteIfExists(tempFile);
+         }
+         catch (final IOException deleteException)
+         {
+            ioException.addSuppressed(deleteException);
+         }
+         throw new UncheckedIOException("Could not write index " + indexFile, ioException);
+      }
+   }
+
+   /**
+    * Writes 7 bits per byte with the high bit meaning that there are more bytes.
+    */
+   private static void writeVarInt(final DataOutputStream output, int value) throws IOException
+   {
+      while ((value & ~0x7F) != 0)
+      {
+         output.writeByte((value & 0x7F) | 0x80);
+         value >>>= 7;
+      }
+      output.writeByte(value);
+   }
+
+   private static int readVarInt(final ByteBuffer input)
+   {
+      int result = 0;
+      for (int shift = 0; ; shift += 7)
+      {
+         final byte thisByte = input.get();
+         result |= (thisByte & 0x7F) << shift;
+         if (thisByte >= 0) return result;
+      }
+   }
+
+   private static final class Entry implements Comparable<Entry>
+   {
+      private final byte[] pathBytes;
+      private final byte type;
+      private final long size;
+      private final long lastModified;
+
+      private Entry(final byte[] pathBytes, final byte type, final long size, final long lastModified)
+      {
+         this.pathBytes = pathBytes;
+         this.type = type;
+         this.size = size;
+         this.lastModified = lastModified;
+      }
+
+      @Override
+      public int compareTo(final Entry other)
+      {
+         return Arrays.compareUnsigned(pathBytes, other.pathBytes);
+      }
+   }
+
+   /**
+    * Decodes one entry at a time into a reused buffer. A path or file name String is only created when asked for.
+    */
+   private static final class EntryIterator
+   {
+      private final ByteBuffer input;
+      private final FileSystem fileSystem;
+      private final byte separator;
+      private int remainingCount;
+      private byte[] pathBytes = new byte[256];
+      private int pathLength = 0;
+      private byte type;
+      private long size;
+      private long lastModified;
+
+      private EntryIterator(final ByteBuffer input, final int entryCount, final FileSystem fileSystem)
+      {
+         this.input = input;
+         this.remainingCount = entryCount;
+         this.fileSystem = fileSystem;
+         //the separator is always a single ASCII character
+         this.separator = (byte) fileSystem.getSeparator().charAt(0);
+      }
+
+      private boolean hasNext()
+      {
+         return remainingCount > 0;
+      }
+
+      private void advance()
+      {
+         final int sharedLength = readVarInt(input);
+         final int suffixLength = readVarInt(input);
+         pathLength = sharedLength + suffixLength;
+         if (pathLength > pathBytes.length) pathBytes = Arrays.copyOf(pathBytes, Math.max(pathLength, pathBytes.length * 2));
+         input.get(pathBytes, sharedLength, suffixLength);
+         type = input.get();
+         size = input.getLong();
+         lastModified = input.getLong();
+         remainingCount--;
+      }
+
+      private String getFileName()
+      {
+         int nameStart = pathLength;
+         while (nameStart > 0 && pathBytes[nameStart - 1] != separator){ nameStart--; }
+         //a root's name is empty the same as Filters.getFileName
+         if (nameStart == pathLength) return "";
+         return new String(pathBytes, nameStart, pathLength - nameStart, StandardCharsets.UTF_8);
+      }
+
+      private Path toPath()
+      {
+         return fileSystem.getPath(new String(pathBytes, 0, pathLength, StandardCharsets.UTF_8));
+      }
+   }
+}
@@ -0,0 +1,238 @@
+package com.github.skySpiral7.java.pojo;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Matches a path's file name against any number of globs, extensions, and regular expressions. Everything is compiled
+ * once: the extensions become a set (so each test is a single lookup no matter how many there are) and the globs and
+ * regular expressions become a single pattern of alternatives. Only the file name is used so no File is created
+ * (unlike FileNameExtensionFilter).</p>
+ *
+ * <p>A glob has the same syntax as {@link FileSystem#getPathMatcher(String)} and must match the entire file name.
+ * The exception is a ] right after [ or [! which is part of the class (like fnmatch) instead of being an error.
+ * An extension is compared ignoring case. A regular expression only needs to be found within the file name.
+ * The file name matches if any of them match. This class is immutable and thread safe.</p>
+ *
+ * @see FileGatherer.Filters
+ */
+public final class FileNameMatcher implements Predicate<Path>
+{
+   private final List<String> globs;
+   private final Set<String> lowerCaseExtensions;
+   private final List<Pattern> patterns;
+   /**
+    * The globs and patterns combined or null if there aren't any
+    */
+   private final Pattern combinedPattern;
+   /**
+    * Patterns that have capturing groups can't be combined since a back reference's group number would change
+    */
+   private final List<Pattern> separatePatterns;
+
+   /**
+    * @param globs      the entire file name must match one of these
+    * @param extensions the file name must end with a dot and one of these (ignoring case)
+    * @param patterns   one of these must be found within the file name
+    */
+   public FileNameMatcher(final Collection<String> globs, final Collection<String> extensions, final Collection<Pattern> patterns)
+   {
+      this.globs = Collections.unmodifiableList(new ArrayList<>(globs));
+      this.patterns = Collections.unmodifiableList(new ArrayList<>(patterns));
+
+      final Set<String> lowerCaseExtensions = new HashSet<>();
+      for (final String extension : extensions)
+      {
+         if (extension == null || extension.isEmpty())
+            throw new IllegalArgumentException("Each extension must be non-null and not empty");
+         lowerCaseExtensions.add(extension.toLowerCase(Locale.ENGLISH));
+      }
+      this.lowerCaseExtensions = Collections.unmodifiableSet(lowerCaseExtensions);
+
+      final StringBuilder combinedRegex = new StringBuilder();
+      final List<Pattern> separatePatterns = new ArrayList<>();
+      for (final String glob : this.globs)
+      {
+         if (combinedRegex.length() != 0) combinedRegex.append('|');
+         combinedRegex.append("(?:^").append(globToRegex(glob)).append("$)");
+      }
+      for (final Pattern pattern : this.patterns)
+      {
+         if (pattern.matcher("").groupCount() != 0 || (pattern.flags() & Pattern.CANON_EQ) != 0) separatePatterns.add(pattern);
+         else
+         {
+            if (combinedRegex.length() != 0) combinedRegex.append('|');
+            combinedRegex.append(toInlineRegex(pattern));
+         }
+      }
+      this.combinedPattern = (combinedRegex.length() == 0) ? null : Pattern.compile(combinedRegex.toString());
+      this.separatePatterns = Collections.unmodifiableList(separatePatterns);
+   }
+
+   public static FileNameMatcher ofGlobs(final String... globs)
+   {
+      return new FileNameMatcher(Arrays.asList(globs), Collections.emptyList(), Collections.emptyList());
+   }
+
+   public static FileNameMatcher ofExtensions(final String... extensions)
+   {
+      if (extensions.length == 0) throw new IllegalArgumentException("Extensions must be non-null and not empty");
+      return new FileNameMatcher(Collections.emptyList(), Arrays.asList(extensions), Collections.emptyList());
+   }
+
+   public static FileNameMatcher ofPatterns(final Pattern... patterns)
+   {
+      return new FileNameMatcher(Collections.emptyList(), Collections.emptyList(), Arrays.asList(patterns));
+   }
+
+   /**
+    * @return a new matcher that matches if either this or other matches
+    */
+   public FileNameMatcher or(final FileNameMatcher other)
+   {
+      final List<String> allGlobs = new ArrayList<>(globs);
+      allGlobs.addAll(other.globs);
+      final List<String> allExtensions = new ArrayList<>(lowerCaseExtensions);
+      allExtensions.addAll(other.lowerCaseExtensions);
+      final List<Pattern> allPatterns = new ArrayList<>(patterns);
+      allPatterns.addAll(other.patterns);
+      return new FileNameMatcher(allGlobs, allExtensions, allPatterns);
+   }
+
+   /**
+    * @return true if the path's file name matches. The path doesn't need to exist.
+    */
+   @Override
+   public boolean test(final Path path)
+   {
+      return matchesName(FileGatherer.Filters.getFileName(path));
+   }
+
+   /**
+    * @param fileName only the name without any parent folders
+    */
+   public boolean matchesName(final String fileName)
+   {
+      if (!lowerCaseExtensions.isEmpty())
+      {
+         final int dotIndex = fileName.lastIndexOf('.');
+         //same as FileNameExtensionFilter: a leading dot (hidden file) isn't an extension and neither is a trailing dot
+         if (dotIndex > 0 && dotIndex < fileName.length() - 1
+             && lowerCaseExtensions.contains(fileName.substring(dotIndex + 1).toLowerCase(Locale.ENGLISH)))
+            return true;
+      }
+      if (combinedPattern != null && combinedPattern.matcher(fileName).find()) return true;
+      for (final Pattern pattern : separatePatterns)
+      {
+         if (pattern.matcher(fileName).find()) return true;
+      }
+      return false;
+   }
+
+   @Override
+   public String toString()
+   {
+      return "FileNameMatcher{globs=" + globs + ", extensions=" + lowerCaseExtensions + ", patterns=" + patterns + "}";
+   }
+
+   /**
+    * @return the pattern as a regular expression that has the same flags inline
+    */
+   private static String toInlineRegex(final Pattern pattern)
+   {
+      final int flags = pattern.flags();
+      final String regex = ((flags & Pattern.LITERAL) != 0) ? Pattern.quote(pattern.pattern()) : pattern.pattern();
+      final StringBuilder inlineFlags = new StringBuilder();
+      if ((flags & Pattern.UNIX_LINES) != 0) inlineFlags.append('d');
+      if ((flags & Pattern.CASE_INSENSITIVE) != 0) inlineFlags.append('i');
+      if ((flags & Pattern.COMMENTS) != 0) inlineFlags.append('x');
+      if ((flags & Pattern.MULTILINE) != 0) inlineFlags.append('m');
+      if ((flags & Pattern.DOTALL) != 0) inlineFlags.append('s');
+      if ((flags & Pattern.UNICODE_CASE) != 0) inlineFlags.append('u');
+      if ((flags & Pattern.UNICODE_CHARACTER_CLASS) != 0) inlineFlags.append('U');
+      //the new line is needed in case regex ends with a comment
+      if ((flags & Pattern.COMMENTS) != 0) return "(?" + inlineFlags + ":" + regex + "\n)";
+      return "(?" + inlineFlags + ":" + regex + ")";
+   }
+
+   /**
+    * Converts a glob into a regular expression that has no capturing groups.
+    * Since only a file name is matched the wildcards * and ** are the same.
+    *
+    * @see FileSystem#getPathMatcher(String)
+    */
+   static String globToRegex(final String glob)
+   {
+      Objects.requireNonNull(glob);
+      final StringBuilder regex = new StringBuilder(glob.length() * 2);
+      boolean isInGroup = false;
+      for (int i = 0; i < glob.length(); i++)
+      {
+         final char thisChar = glob.charAt(i);
+         switch (thisChar)
+         {
+            case '\\':
+               if (i + 1 == glob.length()) throw new IllegalArgumentException("Glob ends with an escape: " + glob);
+               i++;
+               regex.append(Pattern.quote(String.valueOf(glob.charAt(i))));
+               break;
+            case '*':
+               regex.append(".*");
+               break;
+            case '?':
+               regex.append('.');
+               break;
+            case '{':
+               if (isInGroup) throw new IllegalArgumentException("Glob can't have nested groups: " + glob);
+               isInGroup = true;
+               regex.append("(?:");
+               break;
+            case '}':
+               if (!isInGroup) throw new IllegalArgumentException("Glob closes a group that wasn't opened: " + glob);
+               isInGroup = false;
+               regex.append(')');
+               break;
+            case ',':
+               if (isInGroup) regex.append('|');
+               else regex.append(',');
+               break;
+            case '[':
+               int bracketIndex = i + 1;
+               final boolean isNegated = (bracketIndex < glob.length() && glob.charAt(bracketIndex) == '!');
+               if (isNegated) bracketIndex++;
+               //a ] (or !) right after [ or [! is part of the class (so [] and [!] aren't closed) which is the same as fnmatch
+               final int closeIndex = glob.indexOf(']', bracketIndex + 1);
+               if (closeIndex == -1) throw new IllegalArgumentException("Glob has an unclosed bracket: " + glob);
+               regex.append('[');
+               if (isNegated) regex.append('^');
+               for (; bracketIndex < closeIndex; bracketIndex++)
+               {
+                  final char bracketChar = glob.charAt(bracketIndex);
+                  //only - has meaning inside of a glob's brackets
+                  if (bracketChar == '-') regex.append('-');
+                  else if (Character.isLetterOrDigit(bracketChar)) regex.append(bracketChar);
+                  else regex.append('\\').append(bracketChar);
+               }
+               regex.append(']');
+               i = closeIndex;
+               break;
+            default:
+               if (Character.isLetterOrDigit(thisChar)) regex.append(thisChar);
+               else regex.append(Pattern.quote(String.valueOf(thisChar)));
+         }
+      }
+      if (isInGroup) throw new IllegalArgumentException("Glob has an unclosed group: " + glob);
+      return regex.toString();
+   }
+}
@@ -0,0 +1,511 @@
+package com.github.skySpiral7.java.pojo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>Finds what changed in a folder (and all explored sub folders) since the previous scan. The first scan finds every
+ * path as added. A snapshot of the path, size, and last modified time of everything found is kept so that each scan only
+ * returns what was added, modified, or deleted.</p>
+ *
+ * <p>A directory is only listed again if its last modified time changed (which happens when an entry is added, removed,
+ * or renamed) but the files are still checked for modification. If {@link #startWatching()} is called then only the
+ * paths that had events since the previous scan are checked which makes each scan cost O(changes) instead of O(tree).
+ * Note that a change made within the same file system time tick as the previous scan can be missed without watching.</p>
+ *
+ * <p>The snapshot can be saved and loaded so that the first scan after a restart is also cheap. This class is not
+ * thread safe.</p>
+ *
+ * @see FileGatherer
+ */
+public final class IncrementalFileGatherer implements Closeable
+{
+   private static final int SNAPSHOT_FORMAT_VERSION = 1;
+   static final byte TYPE_FILE = 0;
+   static final byte TYPE_EXPLORED_DIRECTORY = 1;
+   static final byte TYPE_UNEXPLORED_DIRECTORY = 2;
+
+   private final Path rootFolder;
+   private final Map<Path, Snapshot> snapshots = new HashMap<>();
+   private Predicate<Path> exploreCriteria;
+   private WatchService watchService;
+   /**
+    * Each registered directory by its key. Package private for the UT.
+    */
+   final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+   private final Map<Path, WatchKey> watchKeys = new HashMap<>();
+   /**
+    * True until everything has been scanned since watching started (since changes before then weren't watched)
+    */
+   private boolean isWatchIncomplete;
+
+   /**
+    * @param rootFolder the root which will be scanned along with all explored sub folders
+    */
+   public IncrementalFileGatherer(final Path rootFolder)
+   {
+      Objects.requireNonNull(rootFolder);
+      if (Files.notExists(rootFolder)) throw new IllegalArgumentException(rootFolder + " doesn't exist");
+      if (Files.isRegularFile(rootFolder)) throw new IllegalArgumentException(rootFolder + " isn't a directory");
+      this.rootFolder = rootFolder;
+      exploreCriteria = FileGatherer.Filters.ACCEPT_ALL;
+   }
+
+   /**
+    * Loads a snapshot that was saved by {@link #save(Path)}. The exploreCriteria isn't saved so it needs to be set again.
+    *
+    * @see #save(Path)
+    */
+   public static IncrementalFileGatherer load(final Path snapshotFile)
+   {
+      try (final DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile))))
+      {
+         final int version = input.readInt();
+         if (version != SNAPSHOT_FORMAT_VERSION)
+            throw new IllegalArgumentException(snapshotFile + " has an unsupported snapshot format version: " + version);
+         final IncrementalFileGatherer result = new IncrementalFileGatherer(Paths.get(input.readUTF()));
+         final int count = input.readInt();
+         for (int i = 0; i < count; i++)
+         {
+            final Path path = result.rootFolder.getFileSystem().getPath(input.readUTF());
+            result.restore(path, input.readByte(), input.readLong(), input.readLong());
+         }
+         result.linkRestoredChildren();
+         return result;
+      }
+      catch (final IOException ioException)
+      {
+         throw new UncheckedIOException("Could not load snapshot " + snapshotFile, ioException);
+      }
+   }
+
+   /**
+    * Saves the snapshot of the previous scan so that it can be loaded later.
+    *
+    * @see #load(Path)
+    */
+   public void save(final Path snapshotFile)
+   {
+      try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(snapshotFile))))
+      {
+         output.writeInt(SNAPSHOT_FORMAT_VERSION);
+         output.writeUTF(rootFolder.toString());
+         output.writeInt(snapshots.size());
+         forEachSnapshot((path, type, size, lastModified) -> {
+            output.writeUTF(path.toString());
+            output.writeByte(type);
+            output.writeLong(size);
+            output.writeLong(lastModified);
+         });
+      }
+      catch (final IOException ioException)
+      {
+         throw new UncheckedIOException("Could not save snapshot " + snapshotFile, ioException);
+      }
+   }
+
+   /**
+    * Adds a path to the snapshot (used when loading). Call linkRestoredChildren once everything has been restored.
+    *
+    * @param type         one of the TYPE constants
+    * @param lastModified in nanoseconds since the epoch
+    */
+   void restore(final Path path, final byte type, final long size, final long lastModified)
+   {
+      final List<Path> children = (type == TYPE_EXPLORED_DIRECTORY) ? new ArrayList<>() : null;
+      snapshots.put(path, new Snapshot(type != TYPE_FILE, size, lastModified, children));
+   }
+
+   void linkRestoredChildren()
+   {
+      //the children aren't saved since each path's parent is known
+      for (final Path path : snapshots.keySet())
+      {
+         if (path.equals(rootFolder)) continue;
+         final Snapshot parent = snapshots.get(path.getParent());
+         if (parent != null && parent.children != null) parent.children.add(path);
+      }
+      //sorted the same as listing them so that the changes are in the same order as if it had not been loaded
+      snapshots.values().forEach(snapshot -> {
+         if (snapshot.children != null) snapshot.children.sort(null);
+      });
+   }
+
+   /**
+    * Calls the visitor with everything in the snapshot (in no particular order).
+    */
+   void forEachSnapshot(final SnapshotVisitor visitor) throws IOException
+   {
+      for (final Map.Entry<Path, Snapshot> entry : snapshots.entrySet())
+      {
+         final Snapshot snapshot = entry.getValue();
+         final byte type;
+         if (!snapshot.isDirectory) type = TYPE_FILE;
+         else if (snapshot.children != null) type = TYPE_EXPLORED_DIRECTORY;
+         else type = TYPE_UNEXPLORED_DIRECTORY;
+         visitor.visit(entry.getKey(), type, snapshot.size, snapshot.lastModified);
+      }
+   }
+
+   @FunctionalInterface
+   interface SnapshotVisitor
+   {
+      /**
+       * @param type         one of the TYPE constants
+       * @param lastModified in nanoseconds since the epoch
+       */
+      void visit(Path path, byte type, long size, long lastModified) throws IOException;
+   }
+
+   public Path getRootFolder()
+   {
+      return rootFolder;
+   }
+
+   public Predicate<Path> getExploreCriteria()
+   {
+      return exploreCriteria;
+   }
+
+   /**
+    * @param exploreCriteria if test returns false then the folder will not be scanned. Note that this is called on rootFolder
+    */
+   public IncrementalFileGatherer withExploreCriteria(final Predicate<Path> exploreCriteria)
+   {
+      Objects.requireNonNull(exploreCriteria);
+      this.exploreCriteria = exploreCriteria;
+      return this;
+   }
+
+   /**
+    * Registers every explored directory with a WatchService so that the following scans only need to check the paths
+    * that had events. The next scan checks everything (since changes before now weren't watched) and
+    * if the events overflow then the following scan checks everything again.
+    *
+    * @see #close()
+    */
+   public IncrementalFileGatherer startWatching()
+   {
+      if (watchService != null) return this;
+      try
+      {
+         watchService = rootFolder.getFileSystem().newWatchService();
+      }
+      catch (final IOException ioException)
+      {
+         throw new UncheckedIOException("Could not watch " + rootFolder, ioException);
+      }
+      isWatchIncomplete = true;
+      for (final Map.Entry<Path, Snapshot> entry : snapshots.entrySet())
+      {
+         if (entry.getValue().children != null) register(entry.getKey());
+      }
+      return this;
+   }
+
+   /**
+    * Stops watching (if started). Scanning is still possible afterward but will check everything.
+    */
+   @Override
+   public void close()
+   {
+      if (watchService == null) return;
+      try
+      {
+         watchService.close();
+      }
+      catch (final IOException ioException)
+      {
+         throw new UncheckedIOException(ioException);
+      }
+      finally
+      {
+         watchService = null;
+         watchedDirectories.clear();
+         watchKeys.clear();
+      }
+   }
+
+   /**
+    * Updates the snapshot and returns what changed since the previous scan. Directories are only returned when added or
+    * deleted: the paths inside of them are returned for other changes.
+    *
+    * @return the changes in the same order as the folders were scanned (parents before children)
+    */
+   public List<Change> scan()
+   {
+      final List<Change> changes = new ArrayList<>();
+      final Set<Path> changedPaths = pollWatchEvents();
+      if (changedPaths == null || isWatchIncomplete)
+      {
+         scan(rootFolder, true, changes);
+         isWatchIncomplete = false;
+      }
+      else
+      {
+         //parents sort before their children so a deleted directory isn't scanned a second time
+         for (final Path changedPath : new TreeSet<>(changedPaths))
+         {
+            if (snapshots.containsKey(changedPath) || snapshots.containsKey(changedPath.getParent()))
+               scan(changedPath, false, changes);
+         }
+      }
+      return changes;
+   }
+
+   /**
+    * @return the paths that had events or null if everything needs to be scanned
+    */
+   private Set<Path> pollWatchEvents()
+   {
+      if (watchService == null || snapshots.isEmpty()) return null;
+      final Set<Path> changedPaths = new HashSet<>();
+      boolean overflowed = false;
+      try
+      {
+         for (WatchKey key = watchService.poll(); key != null; key = watchService.poll())
+         {
+            final Path directory = watchedDirectories.get(key);
+            if (directory == null)
+            {
+               //canceled (by delete) after the events were queued
+               key.pollEvents();
+               continue;
+            }
+            for (final WatchEvent<?> event : key.pollEvents())
+            {
+               if (event.kind() == StandardWatchEventKinds.OVERFLOW) overflowed = true;
+               else
+               {
+                  changedPaths.add(directory);
+                  changedPaths.add(directory.resolve((Path) event.context()));
+               }
+            }
+            if (!key.reset())
+            {
+               //the directory was deleted or can no longer be watched
+               watchedDirectories.remove(key);
+               watchKeys.remove(directory);
+            }
+         }
+      }
+      catch (final ClosedWatchServiceException closedException)
+      {
+         return null;
+      }
+      if (overflowed) return null;
+      return changedPaths;
+   }
+
+   /**
+    * @param isDeep if false then the known children of an unchanged directory are not scanned
+    */
+   private void scan(final Path path, final boolean isDeep, final List<Change> changes)
+   {
+      final BasicFileAttributes attributes;
+      try
+      {
+         attributes = Files.readAttributes(path, BasicFileAttributes.class);
+      }
+      catch (final NoSuchFileException noSuchFileException)
+      {
+         delete(path, changes);
+         return;
+      }
+      catch (final IOException ioException)
+      {
+         throw new UncheckedIOException("Could not read attributes of " + path, ioException);
+      }
+
+      Snapshot previous = snapshots.get(path);
+      if (previous != null && previous.isDirectory != attributes.isDirectory())
+      {
+         delete(path, changes);
+         previous = null;
+      }
+      final long lastModified = attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+      if (previous == null) changes.add(new Change(Change.Type.ADDED, path));
+      else if (!attributes.isDirectory() && (previous.size != attributes.size() || previous.lastModified != lastModified))
+         changes.add(new Change(Change.Type.MODIFIED, path));
+
+      List<Path> children = null;
+      if (attributes.isDirectory() && exploreCriteria.test(path))
+      {
+         if (previous != null && previous.children != null && previous.lastModified == lastModified)
+         {
+            //unchanged so there's no need to list it again
+            children = previous.children;
+            if (isDeep) children.forEach(child -> scan(child, true, changes));
+         }
+         else
+         {
+            register(path);
+            children = listDirectory(path);
+            final Set<Path> newChildren = new HashSet<>(children);
+            if (previous != null && previous.children != null)
+            {
+               for (final Path oldChild : previous.children)
+               {
+                  if (!newChildren.contains(oldChild)) delete(oldChild, changes);
+               }
+            }
+            for (final Path child : children)
+            {
+               //a new child is always deep since nothing is known about it
+               if (isDeep || !snapshots.containsKey(child)) scan(child, true, changes);
+            }
+         }
+      }
+      else if (previous != null && previous.children != null)
+      {
+         //no longer explored
+         for (final Path oldChild : previous.children){ delete(oldChild, changes); }
+      }
+      snapshots.put(path, new Snapshot(attributes.isDirectory(), attributes.size(), lastModified, children));
+   }
+
+   private void delete(final Path path, final List<Change> changes)
+   {
+      final Snapshot previous = snapshots.remove(path);
+      if (previous == null) return;
+      changes.add(new Change(Change.Type.DELETED, path));
+      if (previous.children != null) previous.children.forEach(child -> delete(child, changes));
+      final WatchKey key = watchKeys.remove(path);
+      if (key != null)
+      {
+         key.cancel();
+         watchedDirectories.remove(key);
+      }
+   }
+
+   private void register(final Path directory)
+   {
+      if (watchService == null || watchKeys.containsKey(directory)) return;
+      try
+      {
+         final WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+               StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+         watchedDirectories.put(key, directory);
+         watchKeys.put(directory, key);
+      }
+      catch (final IOException ioException)
+      {
+         throw new UncheckedIOException("Could not watch directory " + directory, ioException);
+      }
+   }
+
+   private static List<Path> listDirectory(final Path directory)
+   {
+      try (final Stream<Path> children = Files.list(directory))
+      {
+         return children.sorted().collect(Collectors.toCollection(ArrayList::new));
+      }
+      catch (final IOException ioException)
+      {
+         throw new UncheckedIOException("Could not open directory " + directory, ioException);
+      }
+   }
+
+   /**
+    * What was known about a path during the previous scan.
+    */
+   private static final class Snapshot
+   {
+      private final boolean isDirectory;
+      private final long size;
+      /**
+       * in nanoseconds since the epoch
+       */
+      private final long lastModified;
+      /**
+       * null unless this is a directory that was explored
+       */
+      private final List<Path> children;
+
+      private Snapshot(final boolean isDirectory, final long size, final long lastModified, final List<Path> children)
+      {
+         this.isDirectory = isDirectory;
+         this.size = size;
+         this.lastModified = lastModified;
+         this.children = children;
+      }
+   }
+
+   /**
+    * A path that was added, modified, or deleted since the previous scan.
+    */
+   public static final class Change
+   {
+      public static enum Type
+      {
+         ADDED, MODIFIED, DELETED
+      }
+
+      private final Type type;
+      private final Path path;
+
+      public Change(final Type type, final Path path)
+      {
+         this.type = Objects.requireNonNull(type);
+         this.path = Objects.requireNonNull(path);
+      }
+
+      public Type getType()
+      {
+         return type;
+      }
+
+      public Path getPath()
+      {
+         return path;
+      }
+
+      @Override
+      public boolean equals(final Object obj)
+      {
+         if (this == obj) return true;
+         if (!(obj instanceof Change)) return false;
+         final Change other = (Change) obj;
+         return type == other.type && path.equals(other.path);
+      }
+
+      @Override
+      public int hashCode()
+      {
+         return Objects.hash(type, path);
+      }
+
+      @Override
+      public String toString()
+      {
+         return type + " " + path;
+      }
+   }
+}
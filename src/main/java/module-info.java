@@ -1,6 +1,5 @@
 module com.github.skySpiral7.java {
    requires java.base;
-   requires java.desktop;
    requires hamcrest.all;
 
    exports com.github.skySpiral7.java;
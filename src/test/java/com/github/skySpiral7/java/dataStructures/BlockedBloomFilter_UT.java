@@ -0,0 +1,47 @@
+package com.github.skySpiral7.java.dataStructures;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BlockedBloomFilter_UT
+{
+   @Test
+   public void mightContain()
+   {
+      final int insertions = 100_000;
+      final BlockedBloomFilter filter = new BlockedBloomFilter(insertions, 0.01);
+      assertEquals(7, filter.getNumberOfHashes());
+      assertEquals(0, filter.getNumberOfBits() % 512);
+      assertFalse(filter.mightContain(1L));
+
+      //sequential numbers are the worst case for a hash that isn't mixed
+      for (long i = 0; i < insertions; i++){ filter.add(i); }
+      for (long i = 0; i < insertions; i++){ assertTrue(filter.mightContain(i)); }
+
+      int falsePositives = 0;
+      for (long i = insertions; i < insertions * 2L; i++){ if (filter.mightContain(i)) falsePositives++; }
+      //the blocks make it a little higher than 1%
+      assertTrue("falsePositives: " + falsePositives, falsePositives < insertions * 0.02);
+   }
+
+   @Test
+   public void mightContain_object()
+   {
+      final BlockedBloomFilter filter = new BlockedBloomFilter(10, 0.001);
+      filter.add("Alice");
+      filter.add(5);
+      assertTrue(filter.mightContain("Alice"));
+      assertTrue(filter.mightContain(5L));
+      assertTrue(filter.mightContain(Long.valueOf(5)));
+      assertFalse(filter.mightContain("Bob"));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void constructor_throws_givenBadRate()
+   {
+      new BlockedBloomFilter(10, 1);
+   }
+}
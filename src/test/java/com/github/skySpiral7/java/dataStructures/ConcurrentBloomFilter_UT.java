@@ -0,0 +1,67 @@
+package com.github.skySpiral7.java.dataStructures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentBloomFilter_UT
+{
+   @Test
+   public void add()
+   {
+      final ConcurrentBloomFilter filter = new ConcurrentBloomFilter(1000, 0.01);
+      assertEquals(0, filter.approximateElementCount());
+      assertFalse(filter.mightContain("Alice"));
+      assertTrue(filter.add("Alice"));
+      assertFalse(filter.add("Alice"));  //no bits changed
+      assertTrue(filter.mightContain("Alice"));
+      assertFalse(filter.mightContain("Bob"));
+      assertEquals(1, filter.approximateElementCount());
+   }
+
+   @Test
+   public void add_concurrent() throws Exception
+   {
+      final int threadCount = 4;
+      final int perThread = 50_000;
+      final ConcurrentBloomFilter filter = new ConcurrentBloomFilter(threadCount * perThread, 0.01);
+      final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+      final CountDownLatch start = new CountDownLatch(1);
+      final List<Future<?>> futures = new ArrayList<>();
+      try
+      {
+         for (int thread = 0; thread < threadCount; thread++)
+         {
+            final long offset = (long) thread * perThread;
+            futures.add(executor.submit(() -> {
+               start.await();
+               //every thread also adds the first 1000 so that some bits are set by more than 1 thread
+               for (long i = 0; i < 1000; i++){ filter.add(i); }
+               for (long i = offset; i < offset + perThread; i++){ filter.add(i); }
+               return null;
+            }));
+         }
+         start.countDown();
+         for (final Future<?> future : futures){ future.get(1, TimeUnit.MINUTES); }
+      }
+      finally
+      {
+         executor.shutdownNow();
+      }
+
+      final long total = (long) threadCount * perThread;
+      for (long i = 0; i < total; i++){ assertTrue(filter.mightContain(i)); }
+      final long estimate = filter.approximateElementCount();
+      assertTrue("estimate: " + estimate, Math.abs(estimate - total) < total * 0.05);
+   }
+}
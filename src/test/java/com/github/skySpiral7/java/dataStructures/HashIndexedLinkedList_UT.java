@@ -0,0 +1,61 @@
+package com.github.skySpiral7.java.dataStructures;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.hamcrest.collection.IsIterableContainingInOrder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class HashIndexedLinkedList_UT
+{
+   @Test
+   public void findByValue()
+   {
+      final HashIndexedLinkedList<String> list = new HashIndexedLinkedList<>(new String[]{"A", "B", "A", "C"});
+      list.add(1, "A");
+      assertThat(list, IsIterableContainingInOrder.contains("A", "A", "B", "A", "C"));
+      assertTrue(list.contains("A"));
+      assertFalse(list.contains("D"));
+      assertEquals(3, list.count("A"));
+      assertEquals(0, list.indexOf("A"));
+      assertEquals(3, list.lastIndexOf("A"));
+      assertEquals(2, list.indexOf("B"));
+
+      assertTrue(list.removeLastOccurrence("A"));
+      assertTrue(list.remove("A"));
+      assertThat(list, IsIterableContainingInOrder.contains("A", "B", "C"));
+      list.set(0, "C");
+      assertEquals(0, list.indexOf("C"));
+      assertEquals(2, list.lastIndexOf("C"));
+      assertFalse(list.contains("A"));
+      list.swap(1, 2);
+      assertEquals(2, list.indexOf("B"));
+
+      list.clear();
+      assertFalse(list.contains("C"));
+      assertEquals(LinkedList.ELEMENT_NOT_FOUND, list.indexOf("C"));
+   }
+
+   @Test
+   public void randomOperations_sameAsArrayList()
+   {
+      final HashIndexedLinkedList<Integer> actual = new HashIndexedLinkedList<>();
+      final List<Integer> expected = RandomListOperations.assertSameAsArrayList(46, actual);
+      actual.sort(null);
+      expected.sort(null);
+      assertEquals(expected, actual);
+      for (int value = 0; value < RandomListOperations.VALUE_COUNT; value++)
+      {
+         assertEquals(expected.indexOf(value), actual.copy().indexOf(value));
+         assertEquals(expected.lastIndexOf(value), actual.lastIndexOf(value));
+         assertEquals(expected.contains(value), actual.contains(value));
+      }
+      assertTrue(actual.removeAll(Arrays.asList(1, 2)));
+      assertFalse(actual.contains(1));
+   }
+}
@@ -0,0 +1,56 @@
+package com.github.skySpiral7.java.dataStructures;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+
+import org.hamcrest.collection.IsIterableContainingInOrder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedLinkedList_UT
+{
+   @Test
+   public void getNode()
+   {
+      final IndexedLinkedList<String> list = new IndexedLinkedList<>(new String[]{"A", "B", "C", "D"});
+      list.addFirst("0");
+      list.add(2, "1");
+      assertThat(list, IsIterableContainingInOrder.contains("0", "A", "1", "B", "C", "D"));
+      for (int i = 0; i < list.size(); i++)
+      {
+         assertEquals(list.toArray()[i], list.getNode(i).getData());
+         assertEquals(i, list.indexOfNode(list.getNode(i)));
+      }
+   }
+
+   @Test
+   public void randomOperations_sameAsArrayList()
+   {
+      final IndexedLinkedList<Integer> actual = new IndexedLinkedList<>();
+      final List<Integer> expected = RandomListOperations.assertSameAsArrayList(35, actual);
+      for (int i = 0; i < expected.size(); i++){ assertEquals(expected.get(i), actual.get(i)); }
+      assertEquals(expected, actual.copy());
+      actual.clear();
+      assertTrue(actual.isEmpty());
+      actual.add(1);
+      assertEquals(Integer.valueOf(1), actual.get(0));
+   }
+
+   @Test
+   public void listIterator_keepsIndexInSync()
+   {
+      final IndexedLinkedList<String> list = new IndexedLinkedList<>(Arrays.asList("A", "B", "C"));
+      final ListIterator<String> iterator = list.listIterator(1);
+      iterator.next();
+      iterator.remove();
+      iterator.add("X");
+      iterator.add("Y");
+      assertThat(list, IsIterableContainingInOrder.contains("A", "X", "Y", "C"));
+      assertEquals("Y", list.get(2));
+      assertEquals("C", list.get(3));
+   }
+}
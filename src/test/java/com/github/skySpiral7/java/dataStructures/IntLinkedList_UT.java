@@ -0,0 +1,138 @@
+package com.github.skySpiral7.java.dataStructures;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IntLinkedList_UT
+{
+   @Test
+   public void deque()
+   {
+      final IntLinkedList list = IntLinkedList.of(2, 3);
+      list.addFirst(1);
+      list.addLast(4);
+      assertArrayEquals(new int[]{1, 2, 3, 4}, list.toArray());
+      assertEquals(1, list.removeFirst());
+      assertEquals(4, list.removeLast());
+      assertEquals(2, list.getFirst());
+      assertEquals(3, list.getLast());
+      assertEquals("[2, 3]", list.toString());
+   }
+
+   @Test
+   public void removedSlotsAreReused()
+   {
+      final IntLinkedList list = new IntLinkedList(4);
+      for (int i = 0; i < 4; i++){ list.add(i); }
+      final int[] values = list.values;
+      for (int i = 0; i < 1000; i++)
+      {
+         list.removeFirst();
+         list.addLast(i);
+      }
+      //steady state doesn't grow the arrays
+      assertTrue(values == list.values);
+      assertEquals(4, list.size());
+   }
+
+   @Test
+   public void iterator_remove()
+   {
+      final IntLinkedList list = IntLinkedList.of(1, 2, 3, 4, 5);
+      final PrimitiveIterator.OfInt iterator = list.iterator();
+      while (iterator.hasNext())
+      {
+         if (iterator.nextInt() % 2 == 0) iterator.remove();
+      }
+      assertArrayEquals(new int[]{1, 3, 5}, list.toArray());
+      assertEquals(9, list.stream().sum());
+   }
+
+   @Test
+   public void writeTo_readFrom() throws Exception
+   {
+      final IntLinkedList list = new IntLinkedList();
+      for (int i = 0; i < 20_000; i++)
+      {
+         list.addFirst(i);
+         list.addLast(-i);
+      }
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      list.writeTo(new DataOutputStream(bytes));
+      assertEquals(Integer.BYTES * (1 + list.size()), bytes.size());
+      assertEquals(list, IntLinkedList.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+
+      bytes.reset();
+      try (final ObjectOutputStream out = new ObjectOutputStream(bytes)){ out.writeObject(list); }
+      try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+      {
+         final IntLinkedList read = (IntLinkedList) in.readObject();
+         assertEquals(list, read);
+         read.addLast(5);
+         assertEquals(5, read.getLast());
+      }
+   }
+
+   @Test
+   public void randomOperations_sameAsArrayList()
+   {
+      final IntLinkedList actual = new IntLinkedList();
+      final List<Integer> expected = RandomListOperations.assertSameAsArrayList(41, asList(actual));
+      assertEquals(expected, Arrays.stream(actual.toArray()).boxed().collect(Collectors.toList()));
+      assertEquals(expected.hashCode(), actual.hashCode());
+
+      final IntLinkedList copy = actual.copy();
+      actual.trimToSize();
+      assertEquals(expected.size(), actual.values.length);
+      assertEquals(copy, actual);
+      assertEquals(expected, Arrays.stream(actual.toArray()).boxed().collect(Collectors.toList()));
+   }
+
+   /**
+    * @return a view that calls the int methods so that RandomListOperations can be used
+    */
+   private static List<Integer> asList(final IntLinkedList list)
+   {
+      return new AbstractList<Integer>()
+      {
+         @Override
+         public Integer get(final int index){return list.get(index);}
+
+         @Override
+         public Integer set(final int index, final Integer newValue){return list.set(index, newValue);}
+
+         @Override
+         public void add(final int index, final Integer newValue){list.add(index, newValue);}
+
+         @Override
+         public Integer remove(final int index){return list.removeAt(index);}
+
+         @Override
+         public boolean remove(final Object valueToRemove){return list.removeFirstOccurrence((Integer) valueToRemove);}
+
+         @Override
+         public int indexOf(final Object valueToFind){return list.indexOf((Integer) valueToFind);}
+
+         @Override
+         public int lastIndexOf(final Object valueToFind){return list.lastIndexOf((Integer) valueToFind);}
+
+         @Override
+         public int size(){return list.size();}
+      };
+   }
+}
@@ -1,7 +1,24 @@
 package com.github.skySpiral7.java.dataStructures;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import com.github.skySpiral7.java.pojo.DequeNode;
 import org.hamcrest.collection.IsIterableContainingInOrder;
 import org.junit.Before;
 import org.junit.Test;
@@ -9,8 +26,10 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class LinkedList_UT
 {
@@ -54,6 +73,52 @@ public class LinkedList_UT
       assertThat(linkedList, IsIterableContainingInOrder.contains("A", "B", "C"));
    }
 
+   @Test
+   public void addAll_int()
+   {
+      linkedList.addAll(Arrays.asList("A", "B"));
+      linkedList.addAll(1, Arrays.asList("1", "2", "3"));
+      linkedList.addAll(5, Arrays.asList("4"));
+      assertThat(linkedList, IsIterableContainingInOrder.contains("A", "1", "2", "3", "B", "4"));
+      assertEquals("4", linkedList.last.getData());
+      assertEquals(6, linkedList.size());
+   }
+
+   @Test
+   public void transferRange()
+   {
+      linkedList.addAll(Arrays.asList("A", "B", "C", "D"));
+      final LinkedList<String> target = new LinkedList<>(Arrays.asList("1", "2"));
+      linkedList.transferRange(1, 3, target, 1);
+      assertThat(linkedList, IsIterableContainingInOrder.contains("A", "D"));
+      assertThat(target, IsIterableContainingInOrder.contains("1", "B", "C", "2"));
+      assertEquals(2, linkedList.size());
+      assertEquals(4, target.size());
+
+      linkedList.transferAll(target);
+      assertThat(linkedList, IsIterableContainingInOrder.contains("A", "D", "1", "B", "C", "2"));
+      assertTrue(target.isEmpty());
+      assertNull(target.first);
+
+      final LinkedList<String> tail = linkedList.split(4);
+      assertThat(linkedList, IsIterableContainingInOrder.contains("A", "D", "1", "B"));
+      assertThat(tail, IsIterableContainingInOrder.contains("C", "2"));
+      assertEquals("B", linkedList.last.getData());
+      assertNull(linkedList.last.getNext());
+      assertNull(tail.first.getPrev());
+   }
+
+   @Test
+   public void transferRange_childClass()
+   {
+      final IndexedLinkedList<String> source = new IndexedLinkedList<>(Arrays.asList("A", "B", "C"));
+      linkedList.add("1");
+      source.transferRange(0, 2, linkedList, 0);
+      assertThat(linkedList, IsIterableContainingInOrder.contains("A", "B", "1"));
+      assertThat(source, IsIterableContainingInOrder.contains("C"));
+      assertEquals("C", source.get(0));
+   }
+
    @Test
    public void clear()
    {
@@ -68,6 +133,304 @@ public class LinkedList_UT
    //http://courses.cs.washington.edu/courses/cse332/12sp/section/week2/QueueTester.java
    //make a test for inserting in random locations
 
+   @Test
+   public void getNode_usesFinger()
+   {
+      linkedList.addAll(Arrays.asList("A", "B", "C", "D", "E", "F"));
+      assertEquals("C", linkedList.get(2));
+      assertEquals(2, linkedList.finger.index);
+      assertEquals("D", linkedList.get(3));
+      assertEquals(3, linkedList.finger.index);
+      assertEquals("B", linkedList.get(1));
+
+      linkedList.remove(0);  //invalidates the finger
+      assertEquals("C", linkedList.get(1));
+      assertEquals("E", linkedList.get(3));
+      linkedList.add(2, "X");
+      assertThat(linkedList, IsIterableContainingInOrder.contains("B", "C", "X", "D", "E", "F"));
+      for (int i = 0; i < linkedList.size(); i++){ assertEquals(linkedList.toArray()[i], linkedList.get(i)); }
+      for (int i = linkedList.size() - 1; i >= 0; i--){ assertEquals(linkedList.toArray()[i], linkedList.get(i)); }
+   }
+
+   @Test
+   public void get_concurrentReaders() throws Exception
+   {
+      final int threadCount = 4;
+      final LinkedList<Integer> numbers = new LinkedList<>();
+      for (int i = 0; i < 10_000; i++){ numbers.add(i); }
+      final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+      try
+      {
+         final List<Future<?>> futures = new ArrayList<>();
+         for (int thread = 0; thread < threadCount; thread++)
+         {
+            final Random random = new Random(thread);
+            //every thread moves the same finger so a torn finger would return the wrong element
+            futures.add(executor.submit(() -> {
+               for (int call = 0; call < 100_000; call++)
+               {
+                  final int index = random.nextInt(numbers.size());
+                  assertEquals(Integer.valueOf(index), numbers.get(index));
+               }
+            }));
+         }
+         for (final Future<?> future : futures){ future.get(1, TimeUnit.MINUTES); }
+      }
+      finally
+      {
+         executor.shutdownNow();
+      }
+   }
+
+   @Test
+   public void spliterator()
+   {
+      final LinkedList<Integer> numbers = new LinkedList<>();
+      for (int i = 0; i < 10_000; i++){ numbers.add(i); }
+
+      final Spliterator<Integer> suffix = numbers.spliterator();
+      assertEquals(10_000, suffix.getExactSizeIfKnown());
+      final Spliterator<Integer> prefix = suffix.trySplit();
+      assertEquals(5_000, prefix.getExactSizeIfKnown());
+      assertEquals(5_000, suffix.getExactSizeIfKnown());
+      assertTrue(suffix.tryAdvance(number -> assertEquals(5_000, number.intValue())));
+
+      assertEquals(numbers, numbers.parallelStream().collect(Collectors.toList()));
+      assertEquals(10_000L * 9_999 / 2, numbers.parallelStream().mapToLong(Integer::longValue).sum());
+   }
+
+   @Test
+   public void sort()
+   {
+      final Random random = new Random(39);
+      final List<Integer> expected = new ArrayList<>();
+      final LinkedList<Integer> numbers = new LinkedList<>();
+      for (int i = 0; i < 1000; i++)
+      {
+         final int number = random.nextInt(100);
+         expected.add(number);
+         numbers.add(number);
+      }
+      //stable: sorts by the tens only so that the ones digit shows the original order
+      final Comparator<Integer> byTens = Comparator.comparing(number -> number / 10);
+      expected.sort(byTens);
+      numbers.sort(byTens);
+      assertEquals(expected, numbers);
+      assertEquals(expected.get(999), numbers.last.getData());
+      assertEquals(expected.get(998), numbers.last.getPrev().getData());
+
+      numbers.sort(null);
+      Collections.sort(expected);
+      assertEquals(expected, numbers);
+      assertEquals(expected, reversed(numbers));
+   }
+
+   @Test
+   public void sort_comparatorThrows()
+   {
+      linkedList.addAll(Arrays.asList("C", "A", "B", "D"));
+      try
+      {
+         linkedList.sort((a, b) -> {
+            if ("D".equals(a) || "D".equals(b)) throw new IllegalStateException("Can't compare D");
+            return a.compareTo(b);
+         });
+         fail("Didn't throw");
+      }
+      catch (final IllegalStateException expected)
+      {
+         //expected
+      }
+      assertThat(linkedList, IsIterableContainingInOrder.contains("C", "A", "B", "D"));
+      assertEquals("D", linkedList.last.getData());
+      assertEquals("B", linkedList.last.getPrev().getData());
+   }
+
+   @Test
+   public void parallelSort()
+   {
+      final Random random = new Random(39);
+      final List<Integer> expected = new ArrayList<>();
+      final LinkedList<Integer> numbers = new LinkedList<>();
+      for (int i = 0; i < LinkedList.PARALLEL_SORT_THRESHOLD * 5; i++)
+      {
+         final int number = random.nextInt();
+         expected.add(number);
+         numbers.add(number);
+      }
+      Collections.sort(expected);
+      numbers.parallelSort(null);
+      assertEquals(expected, numbers);
+      assertEquals(expected.size(), numbers.size());
+      assertEquals(expected, reversed(numbers));
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void serialization() throws Exception
+   {
+      final LinkedList<Integer> numbers = new LinkedList<>();
+      //long enough that recursing through each node would overflow the stack
+      for (int i = 0; i < 100_000; i++){ numbers.add(i); }
+
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (final ObjectOutputStream out = new ObjectOutputStream(bytes)){ out.writeObject(numbers); }
+      final Object read;
+      try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))){ read = in.readObject(); }
+
+      assertEquals(LinkedList.class, read.getClass());
+      assertEquals(numbers, read);
+      assertEquals(numbers, reversed((LinkedList<Integer>) read));
+   }
+
+   /**
+    * @return the list built by following the prev pointers (reversed back into normal order)
+    */
+   private static <E> List<E> reversed(final LinkedList<E> list)
+   {
+      final List<E> result = new ArrayList<>();
+      for (DequeNode<E> cursor = list.last; cursor != null; cursor = cursor.getPrev()){ result.add(cursor.getData()); }
+      Collections.reverse(result);
+      return result;
+   }
+
+   @Test
+   public void nodePool()
+   {
+      linkedList.setMaxPooledNodes(2);
+      linkedList.addAll(Arrays.asList("A", "B", "C"));
+      final DequeNode<String> removedNode = linkedList.first;
+      assertEquals("A", linkedList.removeFirst());
+      assertNull(removedNode.getData());
+
+      linkedList.addLast("D");
+      assertSame(removedNode, linkedList.last);
+      assertEquals("D", removedNode.getData());
+
+      linkedList.clear();
+      assertEquals(2, linkedList.nodePool.size());
+      linkedList.addAll(Arrays.asList("E", "F", "G"));
+      assertThat(linkedList, IsIterableContainingInOrder.contains("E", "F", "G"));
+      assertEquals(0, linkedList.nodePool.size());
+      assertEquals(2, linkedList.copy().getMaxPooledNodes());
+   }
+
+   @Test
+   public void copy_copyOnWriteSnapshots()
+   {
+      linkedList.setCopyOnWriteSnapshots(true);
+      linkedList.addAll(Arrays.asList("A", "B", "C"));
+      final LinkedList<String> snapshot = linkedList.copy();
+      final LinkedList<String> otherSnapshot = linkedList.copy();
+      assertSame(linkedList.first, snapshot.first);
+      assertTrue(snapshot.isCopyOnWriteSnapshots());
+
+      linkedList.set(0, "X");
+      linkedList.removeLast();
+      linkedList.addLast("D");
+      assertThat(linkedList, IsIterableContainingInOrder.contains("X", "B", "D"));
+      assertThat(snapshot, IsIterableContainingInOrder.contains("A", "B", "C"));
+
+      final Iterator<String> iterator = snapshot.iterator();
+      iterator.next();
+      iterator.remove();
+      assertThat(snapshot, IsIterableContainingInOrder.contains("B", "C"));
+      //the last list using the nodes doesn't copy them
+      final DequeNode<String> sharedFirst = otherSnapshot.first;
+      otherSnapshot.clear();
+      otherSnapshot.add("E");
+      assertThat(otherSnapshot, IsIterableContainingInOrder.contains("E"));
+      assertEquals("A", sharedFirst.getData());
+      assertThat(snapshot, IsIterableContainingInOrder.contains("B", "C"));
+   }
+
+   @Test
+   public void copy_copyOnWriteSnapshotsInOtherThreads() throws Exception
+   {
+      final int threadCount = 4;
+      final List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < 10_000; i++){ expected.add(i); }
+      final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+      try
+      {
+         for (int round = 0; round < 20; round++)
+         {
+            final LinkedList<Integer> original = new LinkedList<>(expected);
+            original.setCopyOnWriteSnapshots(true);
+            final List<Future<LinkedList<Integer>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threadCount; thread++)
+            {
+               final LinkedList<Integer> snapshot = original.copy();
+               //each changes every node so that a torn copy would be seen
+               futures.add(executor.submit(() -> {
+                  snapshot.replaceAll(number -> -number);
+                  return snapshot;
+               }));
+            }
+            original.clear();
+            for (final Future<LinkedList<Integer>> future : futures)
+            {
+               final LinkedList<Integer> snapshot = future.get(1, TimeUnit.MINUTES);
+               snapshot.replaceAll(number -> -number);
+               assertEquals(expected, snapshot);
+            }
+         }
+      }
+      finally
+      {
+         executor.shutdownNow();
+      }
+   }
+
+   @Test
+   public void removeAll_singleWalk()
+   {
+      final LinkedList<Integer> integerList = new LinkedList<>();
+      final List<Integer> toRemove = new ArrayList<>();
+      for (int i = 0; i < 100_000; i++)
+      {
+         integerList.add(i % 10);
+         if (i < 50) toRemove.add(i % 5);
+      }
+      final int modCount = integerList.getModCount();
+      assertTrue(integerList.removeAll(toRemove));
+      assertEquals(modCount + 1, integerList.getModCount());
+      assertEquals(50_000, integerList.size());
+      assertEquals(Integer.valueOf(5), integerList.getFirst());
+      assertEquals(Integer.valueOf(9), integerList.getLast());
+      assertEquals(integerList.size(), integerList.stream().count());
+      assertFalse(integerList.removeAll(toRemove));
+      assertEquals(modCount + 1, integerList.getModCount());
+
+      assertTrue(integerList.retainAll(Arrays.asList(7)));
+      assertEquals(10_000, integerList.size());
+      assertEquals(Collections.nCopies(10_000, 7), integerList);
+      assertTrue(integerList.remove(Integer.valueOf(7)));
+      assertEquals(9_999, integerList.size());
+      assertTrue(integerList.removeIf(number -> true));
+      assertTrue(integerList.isEmpty());
+      assertNull(integerList.first);
+      assertNull(integerList.last);
+   }
+
+   @Test
+   public void removeIf_childClass()
+   {
+      final IndexedLinkedList<String> list = new IndexedLinkedList<>(Arrays.asList("A", "B", "A", "C"));
+      assertTrue(list.removeIf("A"::equals));
+      assertThat(list, IsIterableContainingInOrder.contains("B", "C"));
+      assertEquals("C", list.get(1));
+
+      linkedList.setCopyOnWriteSnapshots(true);
+      linkedList.addAll(Arrays.asList("A", "B", "A", "C"));
+      final LinkedList<String> snapshot = linkedList.copy();
+      assertFalse(linkedList.removeIf("D"::equals));
+      assertSame(linkedList.first, snapshot.first);
+      assertTrue(linkedList.removeLastOccurrence("A"));
+      assertThat(linkedList, IsIterableContainingInOrder.contains("A", "B", "C"));
+      assertThat(snapshot, IsIterableContainingInOrder.contains("A", "B", "A", "C"));
+   }
+
    @Test
    public void isEmpty()
    {
@@ -0,0 +1,158 @@
+package com.github.skySpiral7.java.dataStructures;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.collection.IsIterableContainingInOrder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class LockFreeDeque_UT
+{
+   @Test
+   public void deque()
+   {
+      final LockFreeDeque<String> deque = new LockFreeDeque<>(Arrays.asList("B", "C"));
+      deque.addFirst("A");
+      deque.addLast("D");
+      assertThat(deque, IsIterableContainingInOrder.contains("A", "B", "C", "D"));
+      assertEquals(4, deque.size());
+      assertEquals("A", deque.peekFirst());
+      assertEquals("D", deque.peekLast());
+
+      final Iterator<String> descending = deque.descendingIterator();
+      final List<String> reversed = new ArrayList<>();
+      descending.forEachRemaining(reversed::add);
+      assertEquals(Arrays.asList("D", "C", "B", "A"), reversed);
+
+      assertEquals("A", deque.pollFirst());
+      assertEquals("D", deque.pollLast());
+      assertEquals("C", deque.pollLast());
+      assertEquals("B", deque.pollFirst());
+      assertTrue(deque.isEmpty());
+      assertNull(deque.pollFirst());
+      assertNull(deque.pollLast());
+   }
+
+   @Test
+   public void iterator_isWeaklyConsistent()
+   {
+      final LockFreeDeque<Integer> deque = new LockFreeDeque<>(Arrays.asList(1, 2, 3));
+      final Iterator<Integer> iterator = deque.iterator();
+      assertEquals(Integer.valueOf(1), iterator.next());
+      deque.pollFirst();
+      deque.pollFirst();
+      deque.addLast(4);
+      //doesn't throw and still returns the elements that were there when created
+      assertEquals(Integer.valueOf(2), iterator.next());
+      assertEquals(Integer.valueOf(3), iterator.next());
+      assertThat(deque.toLinkedList(), IsIterableContainingInOrder.contains(3, 4));
+   }
+
+   @Test
+   public void poll_removedNodesAreNotReachable() throws Exception
+   {
+      final LockFreeDeque<Object> deque = new LockFreeDeque<>();
+      deque.addLast(new Object());
+      deque.addLast(new Object());
+      deque.addLast(new Object());
+      final WeakReference<Object> polledFirst = new WeakReference<>(deque.pollFirst());
+      final WeakReference<Object> polledLast = new WeakReference<>(deque.pollLast());
+      assertEquals(1, deque.size());
+
+      //the elements are only reachable through the removed nodes (if those are still linked to the remaining node)
+      for (int attempt = 0; attempt < 20 && (polledFirst.get() != null || polledLast.get() != null); attempt++)
+      {
+         System.gc();
+         Thread.sleep(10);
+      }
+      assertNull(polledFirst.get());
+      assertNull(polledLast.get());
+   }
+
+   @Test(expected = UnsupportedOperationException.class)
+   public void remove_object()
+   {
+      new LockFreeDeque<>(Arrays.asList(1)).remove(1);
+   }
+
+   @Test
+   public void concurrentProducersAndConsumers() throws Exception
+   {
+      final int threadCount = 4;
+      final int perThread = 20_000;
+      final LockFreeDeque<Integer> deque = new LockFreeDeque<>();
+      final ExecutorService executor = Executors.newFixedThreadPool(threadCount * 2);
+      final CountDownLatch start = new CountDownLatch(1);
+      final List<Future<?>> produced = new ArrayList<>();
+      final List<Future<List<Integer>>> consumed = new ArrayList<>();
+      try
+      {
+         for (int thread = 0; thread < threadCount; thread++)
+         {
+            final int offset = thread * perThread;
+            produced.add(executor.submit(() -> {
+               start.await();
+               for (int i = 0; i < perThread; i++)
+               {
+                  if (i % 2 == 0) deque.offerFirst(offset + i);
+                  else deque.offerLast(offset + i);
+               }
+               return null;
+            }));
+            final boolean fromFirst = (thread % 2 == 0);
+            consumed.add(executor.submit(() -> {
+               start.await();
+               final List<Integer> result = new ArrayList<>();
+               for (int attempts = 0; attempts < perThread * 50 && result.size() < perThread; attempts++)
+               {
+                  final Integer element = fromFirst ? deque.pollFirst() : deque.pollLast();
+                  if (element != null) result.add(element);
+               }
+               return result;
+            }));
+         }
+         start.countDown();
+         //else the rest might not be drained below
+         for (final Future<?> future : produced){ future.get(1, TimeUnit.MINUTES); }
+
+         final BitSet seen = new BitSet();
+         int total = 0;
+         for (final Future<List<Integer>> future : consumed)
+         {
+            for (final Integer element : future.get(1, TimeUnit.MINUTES))
+            {
+               assertFalse("duplicate " + element, seen.get(element));
+               seen.set(element);
+               total++;
+            }
+         }
+         Integer element;
+         while ((element = deque.pollFirst()) != null)
+         {
+            assertFalse("duplicate " + element, seen.get(element));
+            seen.set(element);
+            total++;
+         }
+         assertEquals(threadCount * perThread, total);
+      }
+      finally
+      {
+         executor.shutdownNow();
+      }
+   }
+}
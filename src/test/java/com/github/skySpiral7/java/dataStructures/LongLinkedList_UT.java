@@ -0,0 +1,138 @@
+package com.github.skySpiral7.java.dataStructures;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LongLinkedList_UT
+{
+   /**
+    * Added to each value of the List view so that the values don't fit in an int
+    */
+   private static final long VIEW_OFFSET = 1L << 40;
+
+   @Test
+   public void longLinkedList()
+   {
+      final LongLinkedList list = LongLinkedList.of(Long.MAX_VALUE, 2);
+      list.addFirst(Long.MIN_VALUE);
+      list.add(1, 5);
+      assertArrayEquals(new long[]{Long.MIN_VALUE, 5, Long.MAX_VALUE, 2}, list.toArray());
+      assertEquals(2, list.indexOf(Long.MAX_VALUE));
+      assertTrue(list.removeFirstOccurrence(5));
+      assertFalse(list.contains(5));
+
+      final PrimitiveIterator.OfLong descending = list.descendingIterator();
+      assertEquals(2, descending.nextLong());
+      descending.remove();
+      assertArrayEquals(new long[]{Long.MIN_VALUE, Long.MAX_VALUE}, list.toArray());
+      assertEquals(-1, list.stream().sum());
+   }
+
+   @Test
+   public void iterator_remove()
+   {
+      final LongLinkedList list = LongLinkedList.of(1, 2, 3, 4, 5);
+      final PrimitiveIterator.OfLong iterator = list.iterator();
+      while (iterator.hasNext())
+      {
+         if (iterator.nextLong() % 2 == 0) iterator.remove();
+      }
+      assertArrayEquals(new long[]{1, 3, 5}, list.toArray());
+      assertEquals(3, list.removeAt(1));
+      assertArrayEquals(new long[]{1, 5}, list.toArray());
+   }
+
+   @Test
+   public void writeTo_readFrom() throws Exception
+   {
+      final LongLinkedList list = new LongLinkedList();
+      for (int i = 0; i < 20_000; i++)
+      {
+         list.addFirst(i * VIEW_OFFSET);
+         list.addLast(-i);
+      }
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      list.writeTo(new DataOutputStream(bytes));
+      assertEquals(Integer.BYTES + Long.BYTES * list.size(), bytes.size());
+      assertEquals(list, LongLinkedList.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+
+      bytes.reset();
+      try (final ObjectOutputStream out = new ObjectOutputStream(bytes)){ out.writeObject(list); }
+      try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+      {
+         final LongLinkedList read = (LongLinkedList) in.readObject();
+         assertEquals(list, read);
+         read.addLast(Long.MIN_VALUE);
+         assertEquals(Long.MIN_VALUE, read.getLast());
+      }
+   }
+
+   @Test
+   public void randomOperations_sameAsArrayList()
+   {
+      final LongLinkedList actual = new LongLinkedList();
+      final List<Integer> expected = RandomListOperations.assertSameAsArrayList(41, asList(actual));
+      assertEquals(expected.stream().map(value -> value + VIEW_OFFSET).collect(Collectors.toList()),
+            actual.stream().boxed().collect(Collectors.toList()));
+
+      final LongLinkedList copy = actual.copy();
+      actual.trimToSize();
+      assertEquals(expected.size(), actual.values.length);
+      assertEquals(copy, actual);
+      assertEquals(copy.hashCode(), actual.hashCode());
+      assertEquals(expected, asList(actual));
+   }
+
+   /**
+    * @return a view that calls the long methods (with each value offset by VIEW_OFFSET) so that RandomListOperations can be used
+    */
+   private static List<Integer> asList(final LongLinkedList list)
+   {
+      return new AbstractList<Integer>()
+      {
+         @Override
+         public Integer get(final int index){return toView(list.get(index));}
+
+         @Override
+         public Integer set(final int index, final Integer newValue){return toView(list.set(index, newValue + VIEW_OFFSET));}
+
+         @Override
+         public void add(final int index, final Integer newValue){list.add(index, newValue + VIEW_OFFSET);}
+
+         @Override
+         public Integer remove(final int index){return toView(list.removeAt(index));}
+
+         @Override
+         public boolean remove(final Object valueToRemove){return list.removeFirstOccurrence((Integer) valueToRemove + VIEW_OFFSET);}
+
+         @Override
+         public int indexOf(final Object valueToFind){return list.indexOf((Integer) valueToFind + VIEW_OFFSET);}
+
+         @Override
+         public int lastIndexOf(final Object valueToFind){return list.lastIndexOf((Integer) valueToFind + VIEW_OFFSET);}
+
+         @Override
+         public int size(){return list.size();}
+      };
+   }
+
+   private static Integer toView(final long value)
+   {
+      return Math.toIntExact(value - VIEW_OFFSET);
+   }
+}
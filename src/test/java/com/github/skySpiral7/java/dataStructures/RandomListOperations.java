@@ -0,0 +1,155 @@
+package com.github.skySpiral7.java.dataStructures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Does the same random operations to an ArrayList and the list being tested and asserts that the results are the same.
+ * Used by the UTs of each list (a primitive list can be tested through a List view).
+ */
+public final class RandomListOperations
+{
+   /**
+    * The values are from 0 to this (exclusive) so that there are a lot of duplicates.
+    */
+   public static final int VALUE_COUNT = 20;
+
+   private RandomListOperations(){}
+
+   /**
+    * @param actual must be empty. It ends up with hundreds of elements.
+    *
+    * @return the ArrayList which has the same elements as actual (so that more can be checked)
+    */
+   public static List<Integer> assertSameAsArrayList(final long seed, final List<Integer> actual)
+   {
+      final Random random = new Random(seed);
+      final List<Integer> expected = new ArrayList<>();
+      for (int step = 0; step < 5000; step++)
+      {
+         final String message = "step " + step;
+         final int operation = random.nextInt(10);
+         final Integer value = random.nextInt(VALUE_COUNT);
+         //adds are more likely than removes so that the list grows
+         if (expected.isEmpty() || operation < 4)
+         {
+            final int index = random.nextInt(expected.size() + 1);
+            expected.add(index, value);
+            actual.add(index, value);
+         }
+         else if (operation == 4)
+         {
+            final int index = random.nextInt(expected.size());
+            assertEquals(message, expected.remove(index), actual.remove(index));
+         }
+         else if (operation == 5)
+         {
+            //the ends are the common case for a queue
+            expected.add(value);
+            actual.add(value);
+            assertEquals(message, expected.remove(0), actual.remove(0));
+         }
+         else if (operation == 6)
+         {
+            final int index = random.nextInt(expected.size());
+            assertEquals(message, expected.set(index, value), actual.set(index, value));
+         }
+         else if (operation == 7)
+         {
+            final int index = random.nextInt(expected.size());
+            assertEquals(message, expected.get(index), actual.get(index));
+            assertEquals(message, expected.indexOf(value), actual.indexOf(value));
+            assertEquals(message, expected.lastIndexOf(value), actual.lastIndexOf(value));
+         }
+         else if (operation == 8)
+         {
+            assertEquals(message, expected.remove(value), actual.remove(value));
+         }
+         else
+         {
+            assertEquals(message, expected.remove(expected.size() - 1), actual.remove(actual.size() - 1));
+         }
+         assertEquals(message, expected.size(), actual.size());
+      }
+      assertEquals(expected, actual);
+      return expected;
+   }
+
+   /**
+    * Moves a list iterator around while adding, removing, and setting.
+    *
+    * @param actual          must be empty
+    * @param iteratorFactory given the starting index (after actual has elements)
+    * @param beforeChange    called before each change made by the iterator
+    *
+    * @return the ArrayList which has the same elements as actual
+    */
+   public static List<Integer> assertListIteratorSameAsArrayList(final long seed, final List<Integer> actual,
+                                                        final IntFunction<ListIterator<Integer>> iteratorFactory,
+                                                        final Runnable beforeChange)
+   {
+      final Random random = new Random(seed);
+      final List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < 50; i++)
+      {
+         expected.add(i);
+         actual.add(i);
+      }
+      final ListIterator<Integer> expectedIterator = expected.listIterator(25);
+      final ListIterator<Integer> actualIterator = iteratorFactory.apply(25);
+      boolean canChange = false;
+      for (int step = 0; step < 2000; step++)
+      {
+         final String message = "step " + step;
+         switch (random.nextInt(6))
+         {
+            case 0:
+            case 1:
+               if (expectedIterator.hasNext())
+               {
+                  assertEquals(message, expectedIterator.next(), actualIterator.next());
+                  canChange = true;
+               }
+               break;
+            case 2:
+               if (expectedIterator.hasPrevious())
+               {
+                  assertEquals(message, expectedIterator.previous(), actualIterator.previous());
+                  canChange = true;
+               }
+               break;
+            case 3:
+               beforeChange.run();
+               expectedIterator.add(-step);
+               actualIterator.add(-step);
+               canChange = false;
+               break;
+            case 4:
+               if (canChange)
+               {
+                  beforeChange.run();
+                  expectedIterator.remove();
+                  actualIterator.remove();
+                  canChange = false;
+               }
+               break;
+            default:
+               if (canChange)
+               {
+                  beforeChange.run();
+                  expectedIterator.set(step);
+                  actualIterator.set(step);
+               }
+         }
+         assertEquals(message, expectedIterator.hasNext(), actualIterator.hasNext());
+         assertEquals(message, expectedIterator.nextIndex(), actualIterator.nextIndex());
+      }
+      assertEquals(expected, actual);
+      return expected;
+   }
+}
@@ -0,0 +1,154 @@
+package com.github.skySpiral7.java.dataStructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.hamcrest.collection.IsIterableContainingInOrder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class UnrolledLinkedList_UT
+{
+   @Test
+   public void deque()
+   {
+      final UnrolledLinkedList<Integer> list = new UnrolledLinkedList<>(4);
+      for (int i = 0; i < 10; i++)
+      {
+         list.addLast(i);
+         list.addFirst(-i - 1);
+      }
+      assertThat(list, IsIterableContainingInOrder.contains(-10, -9, -8, -7, -6, -5, -4, -3, -2, -1, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+      assertEquals(Integer.valueOf(-10), list.pollFirst());
+      assertEquals(Integer.valueOf(9), list.removeLast());
+      assertEquals(Integer.valueOf(-9), list.peekFirst());
+      assertEquals(Integer.valueOf(8), list.getLast());
+      list.clear();
+      assertNull(list.pollLast());
+   }
+
+   @Test
+   public void deque_emptyThrows()
+   {
+      final UnrolledLinkedList<Integer> list = new UnrolledLinkedList<>(4);
+      final List<Runnable> calls = Arrays.asList(list::getFirst, list::getLast, list::removeFirst, list::removeLast, list::element,
+            list::remove, list::pop);
+      for (final Runnable call : calls)
+      {
+         try
+         {
+            call.run();
+            fail("Didn't throw");
+         }
+         catch (final NoSuchElementException expected)
+         {
+            //expected
+         }
+      }
+   }
+
+   @Test
+   public void addAll_middle()
+   {
+      final UnrolledLinkedList<String> list = new UnrolledLinkedList<>(3);
+      list.addAll(Arrays.asList("A", "B", "C", "D"));
+      list.addAll(2, Arrays.asList("1", "2", "3", "4"));
+      assertThat(list, IsIterableContainingInOrder.contains("A", "B", "1", "2", "3", "4", "C", "D"));
+      assertArrayEquals(new String[]{"A", "B", "1", "2", "3", "4", "C", "D"}, list.toArray(new String[0]));
+   }
+
+   @Test
+   public void listIterator_sameAsArrayList()
+   {
+      for (final int chunkCapacity : new int[]{1, 2, 3, 8})
+      {
+         final UnrolledLinkedList<Integer> actual = new UnrolledLinkedList<>(chunkCapacity);
+         final List<Integer> expected = RandomListOperations.assertListIteratorSameAsArrayList(chunkCapacity, actual, actual::listIterator,
+               () -> {});
+         assertEquals(expected, Arrays.asList(actual.toArray()));
+      }
+   }
+
+   @Test
+   public void indexOperations_sameAsArrayList()
+   {
+      for (final int chunkCapacity : new int[]{1, 2, 5, 16})
+      {
+         final Random random = new Random(chunkCapacity);
+         final List<Integer> expected = new ArrayList<>();
+         final UnrolledLinkedList<Integer> actual = new UnrolledLinkedList<>(chunkCapacity);
+         for (int step = 0; step < 3000; step++)
+         {
+            final String message = "capacity " + chunkCapacity + " step " + step;
+            final int operation = random.nextInt(7);
+            if (expected.isEmpty() || operation < 2)
+            {
+               final int index = random.nextInt(expected.size() + 1);
+               expected.add(index, step);
+               actual.add(index, step);
+            }
+            else if (operation == 2)
+            {
+               final int index = random.nextInt(expected.size() + 1);
+               final List<Integer> newElements = Collections.nCopies(random.nextInt(chunkCapacity * 3), step);
+               expected.addAll(index, newElements);
+               actual.addAll(index, newElements);
+            }
+            else if (operation == 3)
+            {
+               final int index = random.nextInt(expected.size());
+               assertEquals(message, expected.remove(index), actual.remove(index));
+            }
+            else if (operation == 4)
+            {
+               assertEquals(message, expected.remove(0), actual.removeFirst());
+               if (!expected.isEmpty()) assertEquals(message, expected.remove(expected.size() - 1), actual.removeLast());
+            }
+            else if (operation == 5)
+            {
+               final int index = random.nextInt(expected.size());
+               assertEquals(message, expected.set(index, -step), actual.set(index, -step));
+            }
+            else
+            {
+               final int index = random.nextInt(expected.size());
+               assertEquals(message, expected.get(index), actual.get(index));
+               assertEquals(message, expected.indexOf(expected.get(index)), actual.indexOf(expected.get(index)));
+               assertEquals(message, expected.lastIndexOf(expected.get(index)), actual.lastIndexOf(expected.get(index)));
+            }
+            assertEquals(message, expected.size(), actual.size());
+         }
+         assertEquals(expected, actual);
+         assertEquals(expected, actual.copy());
+      }
+   }
+
+   @Test
+   public void iterator_concurrentModification()
+   {
+      final UnrolledLinkedList<String> list = new UnrolledLinkedList<>(Arrays.asList("A", "B"));
+      final Iterator<String> iterator = list.iterator();
+      iterator.next();
+      list.add("C");
+      try
+      {
+         iterator.next();
+         fail("Didn't throw");
+      }
+      catch (final ConcurrentModificationException expected)
+      {
+         //expected
+      }
+   }
+}
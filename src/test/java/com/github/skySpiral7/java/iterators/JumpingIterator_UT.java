@@ -142,4 +142,32 @@ public class JumpingIterator_UT
       assertEquals(2, iterator.nextIndex());
    }
 
+   @Test
+   public void jumpToIndex_LinkedList()
+   {
+      final JumpingIterator<Integer> iterator = linkedList.jumpingIterator(3);
+      iterator.jumpToEnd();
+      assertEquals(7, iterator.nextIndex());
+      assertEquals(6, iterator.previous().intValue());
+
+      iterator.jumpToIndex(4);
+      assertEquals(4, iterator.next().intValue());
+      iterator.jumpByIndex(-1);
+      assertEquals(4, iterator.next().intValue());
+      iterator.jumpByIndex(Integer.MIN_VALUE);
+      assertEquals(0, iterator.nextIndex());
+      iterator.jumpByIndex(Integer.MAX_VALUE);
+      assertEquals(7, iterator.nextIndex());
+      iterator.jumpToBeginning();
+      assertEquals(0, iterator.next().intValue());
+
+      iterator.jumpToIndex(2);
+      iterator.next();
+      iterator.remove();
+      assertEquals(6, linkedList.size());
+      iterator.add(9);
+      assertEquals(Arrays.asList(0, 1, 9, 3, 4, 5, 6), linkedList);
+      assertEquals(3, iterator.next().intValue());
+   }
+
 }
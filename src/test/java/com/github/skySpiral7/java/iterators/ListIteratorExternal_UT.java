@@ -0,0 +1,71 @@
+package com.github.skySpiral7.java.iterators;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+
+import com.github.skySpiral7.java.dataStructures.LinkedList;
+import com.github.skySpiral7.java.dataStructures.RandomListOperations;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+public class ListIteratorExternal_UT
+{
+   @Test
+   public void next_walksNodes()
+   {
+      final LinkedList<Integer> linkedList = new LinkedList<>();
+      for (int i = 0; i < 200_000; i++){ linkedList.add(i); }
+      final ListIteratorExternal<Integer> iterator = new ListIteratorExternal<>(linkedList);
+      //calling getNode for each would take minutes
+      for (int i = 0; i < 200_000; i++){ assertEquals(i, iterator.next().intValue()); }
+      assertFalse(iterator.hasNext());
+      for (int i = 199_999; i >= 0; i--){ assertEquals(i, iterator.previous().intValue()); }
+   }
+
+   @Test
+   public void randomOperations_sameAsArrayList()
+   {
+      for (final boolean copyOnWriteSnapshots : new boolean[]{false, true})
+      {
+         final LinkedList<Integer> actual = new LinkedList<>();
+         actual.setCopyOnWriteSnapshots(copyOnWriteSnapshots);
+         //the snapshot makes the list copy its nodes on the next change
+         RandomListOperations.assertListIteratorSameAsArrayList(48, actual, index -> new ListIteratorExternal<>(actual, index),
+               () -> {
+                  if (copyOnWriteSnapshots) assertNotNull(actual.copy());
+               });
+      }
+   }
+
+   @Test
+   public void set_afterSnapshotsDisabled()
+   {
+      final LinkedList<String> linkedList = new LinkedList<>(new String[]{"a", "b", "c"});
+      linkedList.setCopyOnWriteSnapshots(true);
+      final LinkedList<String> snapshot = linkedList.copy();
+      //the nodes are still shared with the snapshot
+      linkedList.setCopyOnWriteSnapshots(false);
+      final ListIteratorExternal<String> iterator = new ListIteratorExternal<>(linkedList);
+      iterator.next();
+      iterator.next();
+      iterator.previous();
+      iterator.set("X");
+      assertEquals("X", iterator.next());
+      assertEquals("c", iterator.next());
+      assertEquals(Arrays.asList("a", "X", "c"), linkedList);
+      assertEquals(Arrays.asList("a", "b", "c"), snapshot);
+   }
+
+   @Test(expected = ConcurrentModificationException.class)
+   public void next_failFast()
+   {
+      final LinkedList<Integer> linkedList = new LinkedList<>(new Integer[]{1, 2, 3});
+      final ListIteratorExternal<Integer> iterator = new ListIteratorExternal<>(linkedList);
+      iterator.next();
+      linkedList.removeFirst();
+      iterator.next();
+   }
+}
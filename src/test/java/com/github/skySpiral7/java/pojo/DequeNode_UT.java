@@ -0,0 +1,66 @@
+package com.github.skySpiral7.java.pojo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class DequeNode_UT
+{
+   @Test
+   public void serialization_chain() throws Exception
+   {
+      DequeNode<Integer> middle = null;
+      DequeNode<Integer> cursor = null;
+      for (int i = 0; i < 100_000; i++)
+      {
+         cursor = DequeNode.Factory.createNodeAfter(cursor, i);
+         if (i == 50_000) middle = cursor;
+      }
+
+      final DequeNode<Integer> read = roundTrip(middle);
+      assertEquals(Integer.valueOf(50_000), read.getData());
+      int count = 1;
+      DequeNode<Integer> readCursor = read;
+      for (; readCursor.getNext() != null; readCursor = readCursor.getNext()){ count++; }
+      assertEquals(Integer.valueOf(99_999), readCursor.getData());
+      for (readCursor = read; readCursor.getPrev() != null; readCursor = readCursor.getPrev()){ count++; }
+      assertEquals(Integer.valueOf(0), readCursor.getData());
+      assertEquals(100_000, count);
+      assertNull(readCursor.getPrev());
+   }
+
+   @Test
+   public void serialization_circle() throws Exception
+   {
+      final DequeNode<String> a = DequeNode.Factory.createStandAloneNode("A");
+      final DequeNode<String> b = DequeNode.Factory.createNodeAfter(a, "B");
+      final DequeNode<String> c = DequeNode.Factory.createNodeAfter(b, "C");
+      c.insertThroughBetween(c, b, a);  //c is now between b and a which makes a circle
+
+      final DequeNode<String> read = roundTrip(b);
+      assertEquals("B", read.getData());
+      assertEquals("C", read.getNext().getData());
+      assertEquals("A", read.getNext().getNext().getData());
+      assertSame(read, read.getNext().getNext().getNext());
+      assertSame(read, read.getPrev().getNext());
+      assertEquals("A", read.getPrev().getData());
+   }
+
+   @SuppressWarnings("unchecked")
+   private static <E> DequeNode<E> roundTrip(final DequeNode<E> node) throws Exception
+   {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (final ObjectOutputStream out = new ObjectOutputStream(bytes)){ out.writeObject(node); }
+      try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+      {
+         return (DequeNode<E>) in.readObject();
+      }
+   }
+}
@@ -0,0 +1,68 @@
+package com.github.skySpiral7.java.pojo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DuplicateFileFinder_UT
+{
+   @Rule
+   public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+   @Test
+   public void findDuplicates_parallel() throws IOException
+   {
+      final Path root = temporaryFolder.getRoot().toPath();
+      final List<Path> paths = new ArrayList<>();
+      final Set<Set<Path>> expected = new HashSet<>();
+      for (int group = 0; group < 50; group++)
+      {
+         final Set<Path> duplicates = new HashSet<>();
+         //same size and same first bytes so that the full hash is needed
+         final byte[] content = new byte[DuplicateFileFinder.PARTIAL_HASH_SIZE + 1];
+         content[content.length - 1] = (byte) group;
+         for (int copy = 0; copy < 3; copy++)
+         {
+            final Path path = Files.write(root.resolve("file" + group + "_" + copy), content);
+            paths.add(path);
+            duplicates.add(path);
+         }
+         expected.add(duplicates);
+      }
+      paths.add(Files.write(root.resolve("unique"), new byte[]{1}));
+      paths.add(root);
+
+      final AtomicBoolean isClosed = new AtomicBoolean(false);
+      final List<List<Path>> actual = DuplicateFileFinder.findDuplicates(paths.parallelStream().onClose(() -> isClosed.set(true)));
+      final Set<Set<Path>> actualSets = new HashSet<>();
+      actual.forEach(group -> actualSets.add(new HashSet<>(group)));
+      assertEquals(expected, actualSets);
+      assertEquals(expected.size(), actual.size());
+      assertTrue(isClosed.get());
+   }
+
+   @Test
+   public void findDuplicates_emptyFiles() throws IOException
+   {
+      final Path root = temporaryFolder.getRoot().toPath();
+      final Path first = Files.createFile(root.resolve("a"));
+      final Path second = Files.createFile(root.resolve("b"));
+      final List<List<Path>> actual = DuplicateFileFinder.findDuplicates(Stream.of(first, second));
+      assertEquals(1, actual.size());
+      assertEquals(new HashSet<>(Arrays.asList(first, second)), new HashSet<>(actual.get(0)));
+   }
+}
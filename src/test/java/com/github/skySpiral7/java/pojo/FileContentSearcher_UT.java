@@ -0,0 +1,176 @@
+package com.github.skySpiral7.java.pojo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FileContentSearcher_UT
+{
+   private static final String[] LINE_TERMINATORS = {"\n", "\r", "\r\n"};
+
+   @Rule
+   public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+   @Test
+   public void search_sameLinesAsBufferedReader() throws IOException
+   {
+      final Random random = new Random(5);
+      final List<Path> files = new ArrayList<>();
+      for (int fileIndex = 0; fileIndex < 10; fileIndex++)
+      {
+         //larger than the 16K buffer with empty lines and each kind of terminator
+         final StringBuilder content = new StringBuilder();
+         while (content.length() < 40_000)
+         {
+            final int length = (random.nextInt(4) == 0) ? 0 : random.nextInt(300);
+            for (int i = 0; i < length; i++){ content.append((char) ('a' + random.nextInt(26))); }
+            content.append(LINE_TERMINATORS[random.nextInt(LINE_TERMINATORS.length)]);
+         }
+         //the last file's last line has no terminator
+         if (fileIndex == 9) content.append("last line");
+         files.add(Files.write(temporaryFolder.getRoot().toPath().resolve("file" + fileIndex),
+               content.toString().getBytes(StandardCharsets.UTF_8)));
+      }
+      assertSameLinesAsBufferedReader(files);
+   }
+
+   @Test
+   public void search_returnNewlineAcrossBuffers() throws IOException
+   {
+      final List<Path> files = new ArrayList<>();
+      //reads might return a full 16K buffer or only what 1 read of the underlying stream decoded (which is 8K)
+      for (final int bufferEnd : new int[]{8 * 1024, 16 * 1024})
+      {
+         for (int shift = -3; shift <= 3; shift++)
+         {
+            final String content = "first\n" + "x".repeat(bufferEnd - "first\n".length() - 1 + shift) + "\r\n\r\nafter\r\n";
+            files.add(Files.write(temporaryFolder.getRoot().toPath().resolve("file" + bufferEnd + "_" + shift),
+                  content.getBytes(StandardCharsets.UTF_8)));
+         }
+      }
+      assertSameLinesAsBufferedReader(files);
+   }
+
+   @Test
+   public void search_ordered() throws IOException
+   {
+      final List<Path> files = createNumberedFiles(20);
+      try (final Stream<FileContentSearcher.Match> found = new FileContentSearcher().withMaxFilesInFlight(4)
+            .searchForPattern(files.stream(), Pattern.compile("[02468]$")))
+      {
+         final List<String> expected = new ArrayList<>();
+         for (final Path file : files)
+         {
+            for (int lineNumber = 2; lineNumber <= 10; lineNumber += 2){ expected.add(file + ":" + lineNumber + ":line " + lineNumber); }
+         }
+         assertEquals(expected, found.map(FileContentSearcher.Match::toString).collect(Collectors.toList()));
+      }
+   }
+
+   @Test
+   public void search_unordered() throws IOException
+   {
+      final List<Path> files = createNumberedFiles(20);
+      final List<String> expected;
+      try (final Stream<FileContentSearcher.Match> found = new FileContentSearcher().searchForLiteral(files.stream(), "line"))
+      {
+         expected = found.map(FileContentSearcher.Match::toString).collect(Collectors.toList());
+      }
+      try (final Stream<FileContentSearcher.Match> found = new FileContentSearcher().withMaxFilesInFlight(4).withOrderedResults(false)
+            .searchForLiteral(files.stream(), "line"))
+      {
+         final List<FileContentSearcher.Match> actual = found.collect(Collectors.toList());
+         final List<String> actualStrings = actual.stream().map(FileContentSearcher.Match::toString).collect(Collectors.toList());
+         //each file's matches are still together and in line order
+         for (int i = 0; i < actual.size(); i += 10)
+         {
+            for (int lineNumber = 1; lineNumber <= 10; lineNumber++)
+            {
+               assertEquals(actual.get(i).getFile(), actual.get(i + lineNumber - 1).getFile());
+               assertEquals(lineNumber, actual.get(i + lineNumber - 1).getLineNumber());
+            }
+         }
+         Collections.sort(actualStrings);
+         Collections.sort(expected);
+         assertEquals(expected, actualStrings);
+      }
+   }
+
+   @Test
+   public void close_stopsThreads() throws IOException, InterruptedException
+   {
+      final List<Path> files = createNumberedFiles(200);
+      try (final Stream<FileContentSearcher.Match> found = new FileContentSearcher().withMaxFilesInFlight(4)
+            .searchForLiteral(files.stream(), "line"))
+      {
+         final Iterator<FileContentSearcher.Match> iterator = found.iterator();
+         assertTrue(iterator.hasNext());
+         final List<Thread> threads = searcherThreads();
+         assertFalse(threads.isEmpty());
+         for (final Thread thread : threads){ assertTrue(thread.isDaemon()); }
+      }
+      final long deadline = System.currentTimeMillis() + 30_000;
+      while (!searcherThreads().isEmpty() && System.currentTimeMillis() < deadline){ Thread.sleep(10); }
+      assertEquals(Collections.emptyList(), searcherThreads());
+   }
+
+   private List<Path> createNumberedFiles(final int fileCount) throws IOException
+   {
+      final List<Path> files = new ArrayList<>();
+      for (int fileIndex = 0; fileIndex < fileCount; fileIndex++)
+      {
+         final StringBuilder content = new StringBuilder();
+         for (int lineNumber = 1; lineNumber <= 10; lineNumber++){ content.append("line ").append(lineNumber).append('\n'); }
+         files.add(Files.write(temporaryFolder.getRoot().toPath().resolve(String.format("file%03d", fileIndex)),
+               content.toString().getBytes(StandardCharsets.UTF_8)));
+      }
+      return files;
+   }
+
+   private static void assertSameLinesAsBufferedReader(final List<Path> files) throws IOException
+   {
+      final List<String> expected = new ArrayList<>();
+      for (final Path file : files)
+      {
+         try (final BufferedReader reader = Files.newBufferedReader(file))
+         {
+            long lineNumber = 0;
+            for (String line = reader.readLine(); line != null; line = reader.readLine())
+            {
+               lineNumber++;
+               expected.add(file + ":" + lineNumber + ":" + line);
+            }
+         }
+      }
+      //an empty literal matches every line
+      try (final Stream<FileContentSearcher.Match> found = new FileContentSearcher().searchForLiteral(files.stream(), ""))
+      {
+         assertEquals(expected, found.map(FileContentSearcher.Match::toString).collect(Collectors.toList()));
+      }
+   }
+
+   private static List<Thread> searcherThreads()
+   {
+      return Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.getName().equals("FileContentSearcher") && thread.isAlive())
+            .collect(Collectors.toList());
+   }
+}
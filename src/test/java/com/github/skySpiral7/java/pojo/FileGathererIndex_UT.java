@@ -0,0 +1,168 @@
+package com.github.skySpiral7.java.pojo;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.github.skySpiral7.java.pojo.IncrementalFileGatherer.Change;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class FileGathererIndex_UT
+{
+   @Rule
+   public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+   @Test
+   public void build_sameAsFileGatherer() throws IOException
+   {
+      final Path root = createTree();
+      final Path indexFile = temporaryFolder.getRoot().toPath().resolve("index.bin");
+
+      try (final FileGathererIndex index = FileGathererIndex.build(root, indexFile))
+      {
+         assertEquals(root, index.getRootFolder());
+         assertSameAsFileGatherer(root, index);
+      }
+      try (final FileGathererIndex index = FileGathererIndex.open(indexFile))
+      {
+         assertSameAsFileGatherer(root, index);
+      }
+   }
+
+   @Test
+   public void refresh_addedAndDeleted() throws IOException
+   {
+      final Path root = createTree();
+      final Path indexFile = temporaryFolder.getRoot().toPath().resolve("index.bin");
+      FileGathererIndex.build(root, indexFile).close();
+
+      final Path sharedPrefix = root.resolve("a very long folder name that is shared by the paths inside of it");
+      final Path deleted = sharedPrefix.resolve("a very long file name that is shared 1.txt");
+      final Path added = Files.createFile(sharedPrefix.resolve("a very long file name that is shared 1.txt.bak"));
+      Files.delete(deleted);
+      //the mtime might not change if the scan was in the same clock tick
+      Files.setLastModifiedTime(sharedPrefix, FileTime.fromMillis(Files.getLastModifiedTime(sharedPrefix).toMillis() + 10_000));
+
+      try (final FileGathererIndex index = FileGathererIndex.open(indexFile))
+      {
+         assertEquals(Arrays.asList(new Change(Change.Type.DELETED, deleted), new Change(Change.Type.ADDED, added)), index.refresh());
+         assertSameAsFileGatherer(root, index);
+         assertEquals(Collections.emptyList(), index.refresh());
+      }
+      try (final FileGathererIndex index = FileGathererIndex.open(indexFile))
+      {
+         assertSameAsFileGatherer(root, index);
+      }
+   }
+
+   @Test
+   public void build_nonAsciiNames() throws IOException
+   {
+      //file names are encoded with sun.jnu.encoding (from the locale) which might be ASCII
+      Assume.assumeTrue(Charset.forName(System.getProperty("sun.jnu.encoding")).newEncoder().canEncode("日本語ü"));
+      final Path root = createTree();
+      final Path nonAscii = Files.createDirectory(root.resolve("日本語"));
+      final Path matching = Files.write(nonAscii.resolve("ü.txt"), "size".getBytes());
+      Files.createFile(nonAscii.resolve("ünicode.md"));
+      Files.createFile(root.resolve("ü"));
+      final Path indexFile = temporaryFolder.getRoot().toPath().resolve("index.bin");
+      FileGathererIndex.build(root, indexFile).close();
+
+      try (final FileGathererIndex index = FileGathererIndex.open(indexFile))
+      {
+         assertSameAsFileGatherer(root, index);
+         assertEquals(Collections.singletonList(matching), index.searchForNamePattern(Pattern.compile("^ü\\.")).collect(Collectors.toList()));
+
+         Files.delete(matching);
+         Files.setLastModifiedTime(nonAscii, FileTime.fromMillis(Files.getLastModifiedTime(nonAscii).toMillis() + 10_000));
+         assertEquals(Collections.singletonList(new Change(Change.Type.DELETED, matching)), index.refresh());
+         assertSameAsFileGatherer(root, index);
+      }
+   }
+
+   @Test
+   public void searchForExtensions() throws IOException
+   {
+      final Path root = createTree();
+      try (final FileGathererIndex index = FileGathererIndex.build(root, temporaryFolder.getRoot().toPath().resolve("index.bin"));
+           final Stream<Path> expected = FileGatherer.searchForExtensions(root, "txt"))
+      {
+         assertEquals(sorted(expected), index.searchForExtensions("txt").collect(Collectors.toList()));
+      }
+   }
+
+   @Test
+   public void search_closed() throws IOException
+   {
+      final Path root = createTree();
+      final FileGathererIndex index = FileGathererIndex.build(root, temporaryFolder.getRoot().toPath().resolve("index.bin"));
+      index.close();
+      try
+      {
+         index.search();
+         fail("Didn't throw");
+      }
+      catch (final IllegalStateException actual)
+      {
+         assertEquals("closed", actual.getMessage());
+      }
+      try
+      {
+         index.refresh();
+         fail("Didn't throw");
+      }
+      catch (final IllegalStateException actual)
+      {
+         assertEquals("closed", actual.getMessage());
+      }
+   }
+
+   /**
+    * Has long shared prefixes which are front coded.
+    */
+   private Path createTree() throws IOException
+   {
+      final Path root = temporaryFolder.newFolder("root").toPath();
+      final Path sharedPrefix = Files.createDirectory(root.resolve("a very long folder name that is shared by the paths inside of it"));
+      for (int i = 0; i < 3; i++)
+      {
+         Files.createFile(sharedPrefix.resolve("a very long file name that is shared " + i + ".txt"));
+      }
+      Files.createDirectory(sharedPrefix.resolve("a very long file name that is shared 0"));
+      Files.write(root.resolve("z.txt"), "size".getBytes());
+      return root;
+   }
+
+   private static void assertSameAsFileGatherer(final Path root, final FileGathererIndex index)
+   {
+      try (final Stream<Path> expected = FileGatherer.search(root))
+      {
+         final List<Path> expectedList = sorted(expected);
+         assertEquals(expectedList, index.search().collect(Collectors.toList()));
+         assertEquals(expectedList.size(), index.size());
+      }
+   }
+
+   /**
+    * The index is sorted by path string (there are no surrogate pairs so UTF-8 order is the same).
+    */
+   private static List<Path> sorted(final Stream<Path> paths)
+   {
+      return paths.sorted(Comparator.comparing(Path::toString)).collect(Collectors.toList());
+   }
+}
@@ -0,0 +1,359 @@
+package com.github.skySpiral7.java.pojo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FileGatherer_UT
+{
+   private static final FileTime OLD_TIME = FileTime.fromMillis(1_000_000_000_000L);
+
+   @Rule
+   public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+   @Test
+   public void search_moreRunsThanMaxFanIn() throws IOException
+   {
+      final Path root = temporaryFolder.getRoot().toPath();
+      final List<Path> expected = new ArrayList<>();
+      expected.add(root);
+      //with 1 path per run there are 2 passes before the final merge
+      for (int i = 0; i < FileGatherer.MAX_MERGE_FAN_IN * 2 + 5; i++)
+      {
+         expected.add(Files.createFile(root.resolve(String.format("file%03d", i))));
+      }
+
+      final long runFileCount = countRunFiles();
+      try (final Stream<Path> found = new FileGatherer().withRootFolder(root).withMaxSortedInMemory(1).search())
+      {
+         assertEquals(expected, found.collect(Collectors.toList()));
+      }
+      assertEquals(runFileCount, countRunFiles());
+   }
+
+   @Test
+   public void search_parallelSameOrder() throws IOException
+   {
+      final Path root = createTree();
+      try (final Stream<Path> sequential = FileGatherer.search(root);
+           final Stream<Path> parallel = FileGatherer.search(root).parallel())
+      {
+         assertEquals(sequential.collect(Collectors.toList()), parallel.collect(Collectors.toList()));
+      }
+   }
+
+   @Test
+   public void search_splitReachesSubdirectories() throws IOException
+   {
+      final Path root = createTree();
+      final List<List<Path>> pieces = new ArrayList<>();
+      try (final Stream<Path> sequential = FileGatherer.search(root);
+           final Stream<Path> split = FileGatherer.search(root))
+      {
+         splitAll(split.spliterator(), pieces, 0);
+         assertEquals(sequential.collect(Collectors.toList()), pieces.stream().flatMap(List::stream).collect(Collectors.toList()));
+      }
+      //the root only has a few children so the pieces need to be inside of the large directory
+      final Path large = root.resolve("large");
+      final long largePieceCount = pieces.stream()
+            .filter(piece -> !piece.isEmpty() && piece.stream().allMatch(path -> path.getParent().equals(large)))
+            .count();
+      assertTrue("Pieces only in the large directory: " + largePieceCount, largePieceCount > 1);
+   }
+
+   @Test
+   public void search_closeClosesDirectories() throws IOException
+   {
+      final Path procFileDescriptors = Paths.get("/proc/self/fd");
+      Assume.assumeTrue("Needs /proc to count open directories", Files.isDirectory(procFileDescriptors));
+      final Path root = createTree();
+
+      try (final Stream<Path> found = new FileGatherer().withRootFolder(root).withoutPathOrder().search())
+      {
+         found.forEach(path -> {});
+         assertEquals(0, countOpenDirectories(procFileDescriptors, root));
+      }
+
+      final Stream<Path> found = new FileGatherer().withRootFolder(root).withoutPathOrder().search();
+      final Iterator<Path> iterator = found.iterator();
+      //the root and its first child. the root has more children so it stays open
+      iterator.next();
+      iterator.next();
+      assertTrue(countOpenDirectories(procFileDescriptors, root) > 0);
+      found.close();
+      assertEquals(0, countOpenDirectories(procFileDescriptors, root));
+   }
+
+   @Test
+   public void searchWithAttributes_sameAsSearch() throws IOException
+   {
+      final Path root = createAttributeTree();
+      try (final Stream<Path> expected = FileGatherer.search(root))
+      {
+         final List<FileGatherer.AttributedPath> actual = new FileGatherer().withRootFolder(root).searchWithAttributes()
+               .collect(Collectors.toList());
+         assertEquals(expected.collect(Collectors.toList()),
+               actual.stream().map(FileGatherer.AttributedPath::getPath).collect(Collectors.toList()));
+         for (final FileGatherer.AttributedPath found : actual)
+         {
+            final BasicFileAttributes attributes = Files.readAttributes(found.getPath(), BasicFileAttributes.class);
+            assertEquals(found.getPath().toString(), attributes.isDirectory(), found.getAttributes().isDirectory());
+            if (!attributes.isDirectory()) assertEquals(found.getPath().toString(), attributes.size(), found.getAttributes().size());
+            assertEquals(found.getPath().toString(), attributes.lastModifiedTime(), found.getAttributes().lastModifiedTime());
+         }
+      }
+   }
+
+   @Test
+   public void attributeFilters_sameAsFilters() throws IOException
+   {
+      final Path root = createAttributeTree();
+      final FileTime recently = FileTime.fromMillis(OLD_TIME.toMillis() + 1000);
+
+      assertFilterSame(root, FileGatherer.AttributeFilters.EXCLUDE_DIRECTORIES, FileGatherer.Filters.EXCLUDE_DIRECTORIES);
+      assertFilterSame(root, FileGatherer.AttributeFilters.ONLY_DIRECTORIES, Files::isDirectory);
+      assertFilterSame(root, FileGatherer.AttributeFilters.EXCLUDE_HIDDEN, FileGatherer.Filters.EXCLUDE_HIDDEN);
+      assertFilterSame(root, FileGatherer.AttributeFilters.acceptExtensions("txt"), FileGatherer.Filters.acceptExtensions("txt"));
+      assertFilterSame(root, FileGatherer.AttributeFilters.acceptNamePattern(Pattern.compile("^s")),
+            FileGatherer.Filters.acceptNamePattern(Pattern.compile("^s")));
+
+      assertEquals(Collections.singletonList(root.resolve("sub/large.txt")),
+            assertFilterSame(root, FileGatherer.AttributeFilters.acceptMinimumSize(100), path -> sizeOf(path) >= 100));
+      assertEquals(Collections.singletonList(root.resolve("sub/new.dat")),
+            assertFilterSame(root, FileGatherer.AttributeFilters.acceptModifiedAfter(recently),
+                  path -> lastModifiedOf(path).compareTo(recently) > 0));
+   }
+
+   @Test
+   public void attributeFilters_excludeHidden() throws IOException
+   {
+      final Path root = createAttributeTree();
+      final List<Path> found = new FileGatherer().withRootFolder(root).searchWithAttributes()
+            .filter(FileGatherer.AttributeFilters.EXCLUDE_HIDDEN)
+            .map(FileGatherer.AttributedPath::getPath)
+            .collect(Collectors.toList());
+      for (final Path path : found){ assertFalse(path.toString(), Files.isHidden(path)); }
+      //only names that start with a dot are hidden on Unix
+      if (!Files.isHidden(root.resolve(".hidden"))) return;
+      assertFalse(found.contains(root.resolve(".hidden")));
+      assertFalse(found.contains(root.resolve(".hiddenFolder")));
+      //still explored since the filter isn't the exploreCriteria
+      assertTrue(found.contains(root.resolve(".hiddenFolder/inside")));
+   }
+
+   @Test
+   public void searchWithAttributes_maxDepth() throws IOException
+   {
+      final Path root = createAttributeTree();
+      for (int maxDepth = 0; maxDepth < 3; maxDepth++)
+      {
+         final List<Path> expected;
+         //the max depth is how deep the explored folders are so their children are 1 more
+         try (final Stream<Path> walked = Files.walk(root, maxDepth + 1))
+         {
+            expected = walked.sorted().collect(Collectors.toList());
+         }
+         final FileGatherer gatherer = new FileGatherer().withMaxDepth(root, maxDepth);
+         try (final Stream<Path> searched = gatherer.search())
+         {
+            assertEquals(expected, searched.sorted().collect(Collectors.toList()));
+         }
+         assertEquals(expected, gatherer.searchWithAttributes().map(FileGatherer.AttributedPath::getPath).sorted()
+               .collect(Collectors.toList()));
+      }
+   }
+
+   @Test
+   public void parallelSearch_moreThanQueued() throws IOException
+   {
+      final Path root = temporaryFolder.getRoot().toPath();
+      final Set<Path> expected = new HashSet<>();
+      expected.add(root);
+      for (int folder = 0; folder < 3; folder++)
+      {
+         final Path folderPath = Files.createDirectory(root.resolve("folder" + folder));
+         expected.add(folderPath);
+         for (int i = 0; i < FileGatherer.MAX_QUEUED_PATHS; i++){ expected.add(Files.createFile(folderPath.resolve("file" + i))); }
+      }
+
+      try (final Stream<Path> found = new FileGatherer().withRootFolder(root).parallelSearch())
+      {
+         assertEquals(expected, found.collect(Collectors.toSet()));
+      }
+   }
+
+   @Test
+   public void parallelSearch_closeStopsWalk() throws IOException
+   {
+      final Path root = temporaryFolder.getRoot().toPath();
+      for (int folder = 0; folder < 3; folder++)
+      {
+         final Path folderPath = Files.createDirectory(root.resolve("folder" + folder));
+         for (int i = 0; i < FileGatherer.MAX_QUEUED_PATHS; i++){ Files.createFile(folderPath.resolve("file" + i)); }
+      }
+
+      final ForkJoinPool pool = new ForkJoinPool(2);
+      try
+      {
+         try (final Stream<Path> found = new FileGatherer().withRootFolder(root).withForkJoinPool(pool).parallelSearch())
+         {
+            assertEquals(root, found.findFirst().get());
+         }
+         //else the tasks would wait forever for room in the queue
+         assertTrue(pool.awaitQuiescence(1, TimeUnit.MINUTES));
+      }
+      finally
+      {
+         pool.shutdownNow();
+      }
+   }
+
+   /**
+    * A few directories at the top with 1 that is large enough to be split more than once.
+    */
+   private Path createTree() throws IOException
+   {
+      final Path root = temporaryFolder.getRoot().toPath();
+      final Path nested = Files.createDirectories(root.resolve("a/nested/deeper"));
+      for (int i = 0; i < 10; i++){ Files.createFile(nested.resolve("file" + i)); }
+      Files.createFile(root.resolve("a/file"));
+      final Path large = Files.createDirectory(root.resolve("large"));
+      for (int i = 0; i < 3000; i++){ Files.createFile(large.resolve(String.format("file%04d", i))); }
+      Files.createFile(root.resolve("z.txt"));
+      return root;
+   }
+
+   /**
+    * Has files of each size and age, hidden paths, and is 3 folders deep. Everything is OLD_TIME except sub/new.dat.
+    */
+   private Path createAttributeTree() throws IOException
+   {
+      final Path root = temporaryFolder.getRoot().toPath();
+      Files.write(Files.createDirectories(root.resolve("sub/deeper/deepest")).resolve("small.txt"), new byte[10]);
+      Files.write(root.resolve("sub/large.txt"), new byte[1000]);
+      Files.write(root.resolve("sub/new.dat"), new byte[20]);
+      Files.createFile(root.resolve(".hidden"));
+      Files.createFile(Files.createDirectory(root.resolve(".hiddenFolder")).resolve("inside"));
+      Files.createFile(root.resolve("top.txt"));
+      try (final Stream<Path> everything = Files.walk(root))
+      {
+         for (final Path path : everything.collect(Collectors.toList())){ Files.setLastModifiedTime(path, OLD_TIME); }
+      }
+      Files.setLastModifiedTime(root.resolve("sub/new.dat"), FileTime.fromMillis(OLD_TIME.toMillis() + 10_000));
+      return root;
+   }
+
+   /**
+    * @return the paths that both filters accepted
+    */
+   private static List<Path> assertFilterSame(final Path root, final Predicate<FileGatherer.AttributedPath> attributeFilter,
+                                              final Predicate<Path> pathFilter)
+   {
+      try (final Stream<Path> expected = FileGatherer.search(root))
+      {
+         final List<Path> actual = new FileGatherer().withRootFolder(root).searchWithAttributes()
+               .filter(attributeFilter)
+               .map(FileGatherer.AttributedPath::getPath)
+               .collect(Collectors.toList());
+         assertEquals(expected.filter(pathFilter).collect(Collectors.toList()), actual);
+         return actual;
+      }
+   }
+
+   private static long sizeOf(final Path path)
+   {
+      try
+      {
+         return Files.isRegularFile(path) ? Files.size(path) : -1;
+      }
+      catch (final IOException ioException)
+      {
+         throw new UncheckedIOException(ioException);
+      }
+   }
+
+   private static FileTime lastModifiedOf(final Path path)
+   {
+      try
+      {
+         return Files.getLastModifiedTime(path);
+      }
+      catch (final IOException ioException)
+      {
+         throw new UncheckedIOException(ioException);
+      }
+   }
+
+   /**
+    * Splits until the pieces can't be split (or are deep enough) then reads each. The pieces are in encounter order.
+    */
+   private static void splitAll(final Spliterator<Path> spliterator, final List<List<Path>> pieces, final int depth)
+   {
+      final Spliterator<Path> prefix = (depth < 8) ? spliterator.trySplit() : null;
+      if (prefix == null)
+      {
+         final List<Path> piece = new ArrayList<>();
+         spliterator.forEachRemaining(piece::add);
+         pieces.add(piece);
+         return;
+      }
+      splitAll(prefix, pieces, depth + 1);
+      splitAll(spliterator, pieces, depth + 1);
+   }
+
+   /**
+    * @return the number of file descriptors this process has open for root or anything inside of it
+    */
+   private static long countOpenDirectories(final Path procFileDescriptors, final Path root) throws IOException
+   {
+      final Path realRoot = root.toRealPath();
+      try (final Stream<Path> fileDescriptors = Files.list(procFileDescriptors))
+      {
+         return fileDescriptors.filter(fileDescriptor -> {
+            try
+            {
+               return Files.readSymbolicLink(fileDescriptor).startsWith(realRoot);
+            }
+            catch (final IOException ioException)
+            {
+               //such as the one used for listing which is closed by now
+               return false;
+            }
+         }).count();
+      }
+   }
+
+   private static long countRunFiles() throws IOException
+   {
+      try (final Stream<Path> temporaryFiles = Files.list(Paths.get(System.getProperty("java.io.tmpdir"))))
+      {
+         return temporaryFiles.filter(path -> path.getFileName().toString().startsWith("FileGatherer")).count();
+      }
+   }
+}
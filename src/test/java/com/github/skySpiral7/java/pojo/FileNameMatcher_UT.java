@@ -0,0 +1,104 @@
+package com.github.skySpiral7.java.pojo;
+
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FileNameMatcher_UT
+{
+   @Test
+   public void ofExtensions()
+   {
+      final FileNameMatcher matcher = FileNameMatcher.ofExtensions("txt", "LOG");
+
+      assertThat(matcher.matchesName("a.txt"), is(true));
+      assertThat(matcher.matchesName("a.TXT"), is(true));
+      assertThat(matcher.matchesName("a.b.log"), is(true));
+      assertThat(matcher.matchesName("a.txt.gz"), is(false));
+      assertThat(matcher.matchesName(".txt"), is(false));  //hidden file without an extension
+      assertThat(matcher.matchesName("txt."), is(false));
+      assertThat(matcher.test(Paths.get("folder.txt", "file")), is(false));  //only the file name is used
+   }
+
+   @Test
+   public void ofGlobs_sameAsPathMatcher()
+   {
+      final String[] globs = {"*.java", "data-??.csv", "{a,bc}[0-9].txt", "[!x]*", "\\*star", "*.{tar.gz,zip}", "[!!]", "a[!-]"};
+      final String[] names = {"A.java", "A.javax", "data-01.csv", "data-1.csv", "a5.txt", "bc9.txt", "bc.txt", "x1", "y1", "*star",
+            "astar", "f.tar.gz", "f.zip", "f.gz", "java", "!", "a-", "ab"};
+      for (final String glob : globs)
+      {
+         final PathMatcher expected = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+         final FileNameMatcher actual = FileNameMatcher.ofGlobs(glob);
+         for (final String name : names)
+         {
+            assertThat(glob + " with " + name, actual.matchesName(name), is(expected.matches(Paths.get(name))));
+         }
+      }
+   }
+
+   /**
+    * PathMatcher throws for these but fnmatch (and shells) treat the ] as part of the class.
+    */
+   @Test
+   public void ofGlobs_bracketFirstIsLiteral()
+   {
+      assertThat(FileNameMatcher.ofGlobs("[]]").matchesName("]"), is(true));
+      assertThat(FileNameMatcher.ofGlobs("[]]").matchesName("a"), is(false));
+      assertThat(FileNameMatcher.ofGlobs("[]a]").matchesName("a"), is(true));
+      assertThat(FileNameMatcher.ofGlobs("[!]]").matchesName("a"), is(true));
+      assertThat(FileNameMatcher.ofGlobs("[!]]").matchesName("]"), is(false));
+      assertThat(FileNameMatcher.ofGlobs("x[!]a]y").matchesName("x!y"), is(true));
+      assertThat(FileNameMatcher.ofGlobs("x[!]a]y").matchesName("xay"), is(false));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void ofGlobs_negatedBracketNotClosed()
+   {
+      //the ] is part of the class
+      FileNameMatcher.ofGlobs("[!]");
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void ofGlobs_endsWithBracket()
+   {
+      FileNameMatcher.ofGlobs("a[");
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void ofGlobs_unclosedGroup()
+   {
+      FileNameMatcher.ofGlobs("{a,b");
+   }
+
+   @Test
+   public void ofPatterns()
+   {
+      final FileNameMatcher matcher = FileNameMatcher.ofPatterns(Pattern.compile("abc", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("a.b", Pattern.LITERAL), Pattern.compile("(x)\\1"));
+
+      assertThat(matcher.matchesName("_ABC_"), is(true));
+      assertThat(matcher.matchesName("a.b"), is(true));
+      assertThat(matcher.matchesName("acb"), is(false));  //literal
+      assertThat(matcher.matchesName("1xx2"), is(true));  //back reference still works
+      assertThat(matcher.matchesName("x"), is(false));
+   }
+
+   @Test
+   public void or()
+   {
+      final FileNameMatcher matcher = new FileNameMatcher(Collections.singletonList("*.md"), Collections.singletonList("txt"),
+            Collections.emptyList()).or(FileNameMatcher.ofPatterns(Pattern.compile("^README")));
+
+      for (final String name : Arrays.asList("a.md", "a.TXT", "README_NOW")){ assertThat(name, matcher.matchesName(name), is(true)); }
+      assertThat(matcher.matchesName("a.mdx"), is(false));
+   }
+}
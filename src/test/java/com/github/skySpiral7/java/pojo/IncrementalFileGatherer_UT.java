@@ -0,0 +1,182 @@
+package com.github.skySpiral7.java.pojo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.skySpiral7.java.pojo.IncrementalFileGatherer.Change;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalFileGatherer_UT
+{
+   @Rule
+   public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+   @Test
+   public void scan_addedModifiedDeleted() throws IOException
+   {
+      final Path root = temporaryFolder.getRoot().toPath();
+      final Path fileA = Files.write(root.resolve("a.txt"), "a".getBytes());
+      final Path sub = Files.createDirectory(root.resolve("sub"));
+      final Path fileB = Files.write(sub.resolve("b.txt"), "b".getBytes());
+
+      try (final IncrementalFileGatherer gatherer = new IncrementalFileGatherer(root))
+      {
+         assertEquals(Arrays.asList(added(root), added(fileA), added(sub), added(fileB)), gatherer.scan());
+         assertEquals(Collections.emptyList(), gatherer.scan());
+
+         Files.write(fileA, "changed".getBytes());
+         Files.delete(fileB);
+         final Path fileC = Files.write(sub.resolve("c.txt"), "c".getBytes());
+         touch(fileA);
+         touch(sub);
+
+         assertEquals(Arrays.asList(new Change(Change.Type.MODIFIED, fileA), new Change(Change.Type.DELETED, fileB), added(fileC)),
+               gatherer.scan());
+         assertEquals(Collections.emptyList(), gatherer.scan());
+      }
+   }
+
+   @Test
+   public void scan_deepFindsChangesInUnchangedDirectory() throws IOException
+   {
+      final Path root = temporaryFolder.getRoot().toPath();
+      final Path sub = Files.createDirectories(root.resolve("sub/deeper"));
+      final Path file = Files.write(sub.resolve("file.txt"), "a".getBytes());
+
+      try (final IncrementalFileGatherer gatherer = new IncrementalFileGatherer(root))
+      {
+         gatherer.scan();
+         //only the file's mtime changes so none of the directories need to be listed again
+         touch(file);
+         assertEquals(Collections.singletonList(new Change(Change.Type.MODIFIED, file)), gatherer.scan());
+      }
+   }
+
+   @Test
+   public void scan_deletedDirectory() throws IOException
+   {
+      final Path root = temporaryFolder.getRoot().toPath();
+      final Path sub = Files.createDirectory(root.resolve("sub"));
+      final Path file = Files.write(sub.resolve("file.txt"), "a".getBytes());
+
+      try (final IncrementalFileGatherer gatherer = new IncrementalFileGatherer(root).startWatching())
+      {
+         gatherer.scan();
+         assertEquals(2, gatherer.watchedDirectories.size());
+
+         Files.delete(file);
+         Files.delete(sub);
+         touch(root);
+         final List<Change> changes = scanUntilChanged(gatherer, 2);
+         assertEquals(Arrays.asList(new Change(Change.Type.DELETED, sub), new Change(Change.Type.DELETED, file)), changes);
+         assertEquals(Collections.singletonList(root), new ArrayList<>(gatherer.watchedDirectories.values()));
+      }
+   }
+
+   @Test
+   public void scan_exploreCriteria() throws IOException
+   {
+      final Path root = temporaryFolder.getRoot().toPath();
+      final Path sub = Files.createDirectory(root.resolve("sub"));
+      final Path file = Files.write(sub.resolve("file.txt"), "a".getBytes());
+
+      try (final IncrementalFileGatherer gatherer = new IncrementalFileGatherer(root))
+      {
+         gatherer.scan();
+         gatherer.withExploreCriteria(path -> !path.equals(sub));
+         touch(sub);
+         assertEquals(Collections.singletonList(new Change(Change.Type.DELETED, file)), gatherer.scan());
+      }
+   }
+
+   @Test
+   public void scan_watchingIsNotDeep() throws IOException
+   {
+      final Path root = temporaryFolder.getRoot().toPath();
+      final Path sub = Files.createDirectory(root.resolve("sub"));
+      final Path other = Files.createDirectory(root.resolve("other"));
+      final Path otherFile = Files.write(other.resolve("other.txt"), "a".getBytes());
+
+      try (final IncrementalFileGatherer gatherer = new IncrementalFileGatherer(root).startWatching())
+      {
+         gatherer.scan();
+
+         //changing the criteria doesn't create a watch event so only a deep scan would find it
+         gatherer.withExploreCriteria(path -> !path.equals(other));
+         final Path newFile = Files.write(sub.resolve("new.txt"), "a".getBytes());
+         assertEquals(Collections.singletonList(added(newFile)), scanUntilChanged(gatherer, 1));
+
+         gatherer.close();
+         //not watching anymore so the next scan is deep
+         assertEquals(Collections.singletonList(new Change(Change.Type.DELETED, otherFile)), gatherer.scan());
+      }
+   }
+
+   @Test
+   public void saveLoad_roundTrip() throws IOException
+   {
+      final Path root = temporaryFolder.newFolder("root").toPath();
+      final Path fileA = Files.write(root.resolve("a.txt"), "a".getBytes());
+      final Path sub = Files.createDirectory(root.resolve("sub"));
+      final Path fileB = Files.write(sub.resolve("b.txt"), "b".getBytes());
+      final Path snapshotFile = temporaryFolder.getRoot().toPath().resolve("snapshot.bin");
+
+      try (final IncrementalFileGatherer gatherer = new IncrementalFileGatherer(root))
+      {
+         gatherer.scan();
+         gatherer.save(snapshotFile);
+      }
+
+      try (final IncrementalFileGatherer loaded = IncrementalFileGatherer.load(snapshotFile))
+      {
+         assertEquals(root, loaded.getRootFolder());
+         assertEquals(Collections.emptyList(), loaded.scan());
+
+         Files.delete(fileB);
+         touch(sub);
+         touch(fileA);
+         assertEquals(Arrays.asList(new Change(Change.Type.MODIFIED, fileA), new Change(Change.Type.DELETED, fileB)), loaded.scan());
+      }
+   }
+
+   private static Change added(final Path path)
+   {
+      return new Change(Change.Type.ADDED, path);
+   }
+
+   /**
+    * Moves the mtime forward since the changes might happen in the same clock tick as the previous scan.
+    */
+   private static void touch(final Path path) throws IOException
+   {
+      final long lastModified = Files.getLastModifiedTime(path).toMillis();
+      Files.setLastModifiedTime(path, FileTime.fromMillis(lastModified + 10_000));
+   }
+
+   /**
+    * Watch events are delivered in the background so this keeps scanning until they arrive.
+    */
+   private static List<Change> scanUntilChanged(final IncrementalFileGatherer gatherer, final int expectedCount)
+   {
+      final List<Change> changes = new ArrayList<>();
+      final long deadline = System.currentTimeMillis() + 30_000;
+      while (changes.size() < expectedCount && System.currentTimeMillis() < deadline)
+      {
+         changes.addAll(gatherer.scan());
+         if (changes.size() < expectedCount) Thread.yield();
+      }
+      assertTrue("Timed out waiting for watch events", changes.size() >= expectedCount);
+      return changes;
+   }
+}